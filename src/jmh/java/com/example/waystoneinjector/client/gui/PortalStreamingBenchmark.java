@@ -0,0 +1,98 @@
+package com.example.waystoneinjector.client.gui;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.DataFormatException;
+
+/**
+ * Portal sheet drawn as a whole texture vs. streamed one frame at a time ({@link PortalFrameStreamer}).
+ *
+ * Runs headless on the real portal_animation.png, so only the CPU side is measured: sheet mode just picks a
+ * V offset per animation step, stream mode inflates the frame and copies it into the upload image (an int[]
+ * standing in for the NativeImage). The GPU upload itself can't be timed without a GL context. Resident
+ * memory for both modes is printed once per fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PortalStreamingBenchmark {
+
+    private static final String SHEET = "/assets/waystoneinjector/textures/gui/portal_animation.png";
+    private static final int FRAME = PortalFrameStreamer.FRAME_SIZE;
+
+    private int[] sheet;
+    private byte[][] frames;
+    private PortalFrameCodec codec;
+    private int[] decoded;
+    private int[] uploadImage;
+    private long tick;
+
+    @Setup
+    public void setup() throws IOException {
+        BufferedImage image;
+        try (InputStream in = PortalStreamingBenchmark.class.getResourceAsStream(SHEET)) {
+            if (in == null) throw new IOException("Missing " + SHEET + " on the benchmark classpath");
+            image = ImageIO.read(in);
+        }
+        sheet = image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+        frames = PortalFrameCodec.encode(sheet, FRAME, FRAME);
+        codec = new PortalFrameCodec(FRAME, FRAME);
+        decoded = new int[FRAME * FRAME];
+        uploadImage = new int[FRAME * FRAME];
+
+        long sheetBytes = sheet.length * 4L;
+        long frameBytes = FRAME * FRAME * 4L;
+        System.out.printf("%nSheet mode:  %d KB VRAM per portal type%n", sheetBytes / 1024);
+        System.out.printf("Stream mode: %d KB VRAM shared + %d KB heap per portal type (%d frames)%n",
+            frameBytes / 1024, PortalFrameCodec.compressedSize(frames) / 1024, frames.length);
+    }
+
+    @TearDown
+    public void tearDown() {
+        codec.end();
+    }
+
+    /**
+     * Sheet mode, per animation step: the frame is already on the GPU, only the V offset changes.
+     */
+    @Benchmark
+    public float sheetFrame() {
+        int frameCount = sheet.length / (FRAME * FRAME);
+        int frame = (int) (tick++ % frameCount);
+        return (float) (frame * FRAME);
+    }
+
+    /**
+     * Stream mode, per animation step: inflate the next frame and write it into the upload image.
+     */
+    @Benchmark
+    public int[] streamFrame() throws DataFormatException {
+        int frame = (int) (tick++ % frames.length);
+        codec.decode(frames[frame], decoded);
+        System.arraycopy(decoded, 0, uploadImage, 0, decoded.length);
+        return uploadImage;
+    }
+
+    /**
+     * Stream mode, once per sheet (on the I/O thread): compress every frame.
+     */
+    @Benchmark
+    public byte[][] encodeSheet() {
+        return PortalFrameCodec.encode(sheet, FRAME, FRAME);
+    }
+}
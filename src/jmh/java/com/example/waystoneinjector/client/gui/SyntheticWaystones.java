@@ -0,0 +1,100 @@
+package com.example.waystoneinjector.client.gui;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.Level;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic fake waystones for the benchmarks, shaped like the Waystones mod's {@code IWaystone}
+ * (same accessor names and return types), so extraction goes through the same reflective paths as in game.
+ */
+public final class SyntheticWaystones {
+
+    private static final String[] WORDS = {
+        "spawn", "village", "desert", "temple", "nether", "hub", "mountain", "base", "river", "crossing",
+        "north", "south", "east", "west", "farm", "mine", "tower", "harbor", "forest", "swamp",
+        "castle", "market", "ruins", "outpost", "bridge", "lake", "peak", "camp", "gate", "vault"
+    };
+
+    private static final List<ResourceKey<Level>> DIMENSIONS = List.of(Level.OVERWORLD, Level.NETHER, Level.END);
+
+    private static final ResourceLocation[] TYPES = {
+        new ResourceLocation("waystones", "waystone"),
+        new ResourceLocation("waystones", "mossy_waystone"),
+        new ResourceLocation("waystones", "sandy_waystone"),
+        new ResourceLocation("waystones", "sharestone")
+    };
+
+    private SyntheticWaystones() {
+    }
+
+    /**
+     * {@code count} IWaystone-shaped objects with unique, word-based names (fixed seed).
+     */
+    public static List<Object> raw(int count) {
+        Random random = new Random(42L);
+        List<Object> waystones = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            BlockPos pos = new BlockPos(random.nextInt(60_000) - 30_000, 40 + random.nextInt(200), random.nextInt(60_000) - 30_000);
+            waystones.add(new Waystone(new UUID(42L, i), name, DIMENSIONS.get(random.nextInt(DIMENSIONS.size())),
+                pos, random.nextInt(10) == 0, TYPES[random.nextInt(TYPES.length)]));
+        }
+        return waystones;
+    }
+
+    /**
+     * The same waystones as {@link #raw}, already extracted.
+     */
+    public static List<WaystoneData> data(int count) {
+        return WaystoneExtractor.extractFromList(raw(count));
+    }
+
+    public static final class Waystone {
+        private final UUID uid;
+        private final String name;
+        private final ResourceKey<Level> dimension;
+        private final BlockPos pos;
+        private final boolean global;
+        private final ResourceLocation type;
+
+        Waystone(UUID uid, String name, ResourceKey<Level> dimension, BlockPos pos, boolean global, ResourceLocation type) {
+            this.uid = uid;
+            this.name = name;
+            this.dimension = dimension;
+            this.pos = pos;
+            this.global = global;
+            this.type = type;
+        }
+
+        public UUID getWaystoneUid() {
+            return uid;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public ResourceKey<Level> getDimension() {
+            return dimension;
+        }
+
+        public BlockPos getPos() {
+            return pos;
+        }
+
+        public boolean isGlobal() {
+            return global;
+        }
+
+        public ResourceLocation getWaystoneType() {
+            return type;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.waystoneinjector.client.gui;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+
+/**
+ * Converting the Waystones mod's objects into {@link WaystoneData} (what happens every time the screen opens).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WaystoneExtractorBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int size;
+
+    private List<Object> raw;
+
+    @Setup
+    public void setup() {
+        raw = SyntheticWaystones.raw(size);
+    }
+
+    @Benchmark
+    public List<WaystoneData> extract() {
+        return WaystoneExtractor.extractFromList(raw);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.waystoneinjector.client.gui;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Applying the saved custom order when the screen opens, and applying a single drag-and-drop move in memory. Every entry has a saved rank (the worst case for applyOrder).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WaystoneOrderBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int size;
+
+    private Path orderFile;
+    private List<WaystoneData> waystones;
+    private WaystoneDirectory directory;
+    private int[] order;
+    private int moves;
+
+    @Setup
+    public void setup() throws IOException {
+        orderFile = Files.createTempDirectory("waystone-order-bench").resolve("waystone_order.json");
+        WaystoneOrderManager.setOrderFilePath(orderFile);
+
+        waystones = SyntheticWaystones.data(size);
+        directory = WaystoneDirectory.of(waystones);
+        order = directory.allIds();
+        Random random = new Random(7L);
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+
+        // Rank every waystone in the shuffled order without writing anything: the first move into a directory
+        // ranks all of its unranked waystones in directory order (moving the top one to the top is a no-op)
+        List<WaystoneData> shuffled = new ArrayList<>(order.length);
+        for (int id : order) {
+            shuffled.add(waystones.get(id));
+        }
+        WaystoneOrderManager.moveInMemory(WaystoneDirectory.of(shuffled), 0, -1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        WaystoneOrderManager.setOrderFilePath(null);
+    }
+
+    @Benchmark
+    public List<WaystoneData> applyOrder() {
+        return WaystoneOrderManager.applyOrder(waystones);
+    }
+
+    @Benchmark
+    public boolean moveWaystone() {
+        // Drag one row a short way down: the common case, touching only a few ranks. Only the in-memory move
+        // is measured; the journal append is a single queued line and would only measure the I/O queue here.
+        int from = moves++ % (order.length - 1);
+        return WaystoneOrderManager.moveInMemory(directory, order[from], order[Math.min(from + 3, order.length - 1)]);
+    }
+}
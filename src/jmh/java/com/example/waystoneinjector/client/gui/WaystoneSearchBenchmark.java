@@ -0,0 +1,64 @@
+package com.example.waystoneinjector.client.gui;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+
+/**
+ * Search as the enhanced screen does it: index build on open, then one query per keystroke, narrowing the
+ * previous hits when the query extends the last one (mirrors EnhancedWaystoneSelectionScreen.onSearchChanged).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WaystoneSearchBenchmark {
+
+    // Typing "mountain", then correcting to "mine"
+    private static final String[] KEYSTROKES = {"m", "mo", "mou", "moun", "mount", "mounta", "mountai", "mountain",
+        "mountai", "mounta", "mount", "moun", "mou", "mo", "m", "mi", "min", "mine"};
+
+    @Param({"10", "100", "1000", "10000"})
+    public int size;
+
+    private WaystoneDirectory directory;
+    private WaystoneSearchIndex index;
+
+    @Setup
+    public void setup() {
+        directory = WaystoneDirectory.of(SyntheticWaystones.data(size));
+        index = WaystoneSearchIndex.build(directory);
+    }
+
+    @Benchmark
+    public WaystoneSearchIndex buildIndex() {
+        return WaystoneSearchIndex.build(directory);
+    }
+
+    @Benchmark
+    public void typeQuery(Blackhole blackhole) {
+        String lastQuery = "";
+        int[] lastHits = index.search("");
+        for (String query : KEYSTROKES) {
+            int[] hits = WaystoneSearchIndex.narrows(query, lastQuery)
+                ? index.narrow(lastHits, query)
+                : index.search(query);
+            if (!Arrays.equals(hits, lastHits)) {
+                blackhole.consume(hits);
+            }
+            lastQuery = query;
+            lastHits = hits;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.waystoneinjector.client.gui;
+
+import net.minecraft.world.level.Level;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * "Sort: Nearest" around a fixed overworld position: index build on open, the whole list (mirrors
+ * EnhancedWaystoneSelectionScreen.displayOrder with no filter, a grid walk) and a narrow search's few hits
+ * (sorted directly).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WaystoneSpatialBenchmark {
+
+    private static final double PLAYER_X = 1234.5;
+    private static final double PLAYER_Z = -4321.5;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int size;
+
+    private WaystoneDirectory directory;
+    private WaystoneSpatialIndex index;
+    private int[] all;
+    private int[] few;
+
+    @Setup
+    public void setup() {
+        directory = WaystoneDirectory.of(SyntheticWaystones.data(size));
+        index = WaystoneSpatialIndex.build(directory);
+        all = directory.allIds();
+        few = new int[Math.max(1, size / 20)];
+        for (int i = 0; i < few.length; i++) {
+            few[i] = i * 20 % size;
+        }
+    }
+
+    @Benchmark
+    public WaystoneSpatialIndex buildIndex() {
+        return WaystoneSpatialIndex.build(directory);
+    }
+
+    @Benchmark
+    public int[] sortAllByDistance() {
+        return index.sortByDistance(all, Level.OVERWORLD, PLAYER_X, PLAYER_Z);
+    }
+
+    @Benchmark
+    public int[] sortFewByDistance() {
+        return index.sortByDistance(few, Level.OVERWORLD, PLAYER_X, PLAYER_Z);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.waystoneinjector.client.gui.widget;
+
+import com.example.waystoneinjector.client.gui.SyntheticWaystones;
+import com.example.waystoneinjector.client.gui.WaystoneDirectory;
+import net.minecraft.client.gui.components.Button;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * List layout without drawing: replacing the list (a search result arriving), and scrolling a frame's
+ * worth of rows into place. Row binding and positioning are the parts of a frame that scale with the data.
+ * {@code keystroke} alternates between two overlapping views and lays them out, which is where the keyed
+ * row diff avoids relabelling rows that stay visible.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScrollableWaystoneListBenchmark {
+
+    private static final int X = 10;
+    private static final int Y = 30;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int size;
+
+    private int[] ids;
+    private int[] narrowed;
+    private boolean showNarrowed;
+    private ScrollableWaystoneList list;
+
+    @Setup
+    public void setup() {
+        WaystoneDirectory directory = WaystoneDirectory.of(SyntheticWaystones.data(size));
+        ids = directory.allIds();
+        // Drop every third waystone: most visible rows survive, shifted up
+        narrowed = new int[ids.length - ids.length / 3];
+        for (int i = 0, n = 0; i < ids.length; i++) {
+            if (i % 3 != 2) {
+                narrowed[n++] = ids[i];
+            }
+        }
+        list = new ScrollableWaystoneList(X, Y, 300, 200, directory, ids, waystone -> {});
+    }
+
+    @Benchmark
+    public void updateWaystones() {
+        list.updateWaystones(ids);
+    }
+
+    @Benchmark
+    public void keystroke(Blackhole blackhole) {
+        showNarrowed = !showNarrowed;
+        list.updateWaystones(showNarrowed ? narrowed : ids);
+
+        int lastRow = list.lastVisibleRow();
+        for (int i = list.firstVisibleRow(); i <= lastRow; i++) {
+            blackhole.consume(list.placeRow(i));
+        }
+    }
+
+    @Benchmark
+    public void scrollFrame(Blackhole blackhole) {
+        // One wheel notch down per frame, wrapping to the top at the end of the list
+        if (!list.mouseScrolled(X + 1, Y + 1, -1.0) || list.lastVisibleRow() == ids.length - 1) {
+            list.updateWaystones(ids);
+        }
+
+        int lastRow = list.lastVisibleRow();
+        for (int i = list.firstVisibleRow(); i <= lastRow; i++) {
+            Button button = list.placeRow(i);
+            blackhole.consume(button);
+        }
+    }
+}
@@ -8,7 +8,9 @@ import net.minecraftforge.eventbus.api.IEventBus;
 import net.minecraftforge.fml.ModLoadingContext;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.event.config.ModConfigEvent;
+import net.minecraftforge.fml.event.lifecycle.FMLClientSetupEvent;
 import net.minecraftforge.fml.loading.FMLEnvironment;
+import net.minecraftforge.fml.loading.FMLPaths;
 import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
 
 @Mod(WaystoneInjectorMod.MODID)
@@ -53,6 +55,8 @@ public class WaystoneInjectorMod {
             // Log config load/reload so we can confirm the file is being read.
             modBus.addListener((ModConfigEvent.Loading e) -> {
                 if (e.getConfig().getSpec() == WaystoneConfig.SPEC) {
+                    com.example.waystoneinjector.client.DebugLog.setEnabled(WaystoneConfig.DEBUG_VERBOSE_LOGGING.get());
+                    com.example.waystoneinjector.client.gui.PortalFrameStreamer.setEnabled(WaystoneConfig.STREAM_PORTAL_FRAMES.get());
                     LOGGER.info("Loaded client config: button1.enabled={} netherPortal.variant={}",
                         WaystoneConfig.BUTTON1_ENABLED.get(),
                         WaystoneConfig.NETHER_PORTAL_VARIANT.get());
@@ -60,12 +64,23 @@ public class WaystoneInjectorMod {
             });
             modBus.addListener((ModConfigEvent.Reloading e) -> {
                 if (e.getConfig().getSpec() == WaystoneConfig.SPEC) {
+                    com.example.waystoneinjector.client.DebugLog.setEnabled(WaystoneConfig.DEBUG_VERBOSE_LOGGING.get());
+                    com.example.waystoneinjector.client.gui.PortalFrameStreamer.setEnabled(WaystoneConfig.STREAM_PORTAL_FRAMES.get());
                     LOGGER.info("Reloaded client config: button1.enabled={} netherPortal.variant={}",
                         WaystoneConfig.BUTTON1_ENABLED.get(),
                         WaystoneConfig.NETHER_PORTAL_VARIANT.get());
                 }
             });
 
+            // Read the waystone type registry and the server icon cache in the background so the first screens don't hitch on them
+            modBus.addListener((FMLClientSetupEvent e) -> {
+                com.example.waystoneinjector.client.WaystoneTypeRegistry.loadAsync(FMLPaths.CONFIGDIR.get());
+                com.example.waystoneinjector.client.gui.widget.ServerIconDiskCache.loadAsync(FMLPaths.CONFIGDIR.get());
+            });
+
+            // Drop cached GUI texture lookups whenever resources reload
+            modBus.addListener(com.example.waystoneinjector.client.gui.TextureResolver::onRegisterReloadListeners);
+
             modBus.addListener(com.example.waystoneinjector.client.KeybindHandler::onRegisterKeyMappings);
             LOGGER.debug("KeybindHandler registered");
 
@@ -0,0 +1,142 @@
+package com.example.waystoneinjector.client;
+
+import com.mojang.logging.LogUtils;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Single background thread for the mod's small config/cache files, so the client thread never touches disk.
+ *
+ * Writes are coalesced per file: scheduling a write for a path that already has one pending just replaces
+ * its content, so a burst of changes becomes one write. The content supplier runs on the I/O thread and must
+ * only read state that is safe to read from there (e.g. an immutable snapshot or a concurrent map).
+ *
+ * Files are written to a temp sibling and moved into place, so a crash mid-write never leaves a truncated file.
+ * On JVM shutdown, tasks already queued with {@link #execute} get a short grace period to finish (in order),
+ * then pending writes are flushed.
+ */
+public final class BackgroundIo {
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private static final long SHUTDOWN_GRACE_MS = 2000L;
+
+    private static final ScheduledThreadPoolExecutor EXECUTOR = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "WaystoneInjector-IO");
+        thread.setDaemon(true);
+        return thread;
+    }, new ThreadPoolExecutor.DiscardPolicy());
+
+    private static final Map<Path, Supplier<String>> PENDING_WRITES = new ConcurrentHashMap<>();
+    private static final Object WRITE_LOCK = new Object();
+
+    static {
+        // Delayed writes are flushed directly at shutdown rather than waited for
+        EXECUTOR.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        Runtime.getRuntime().addShutdownHook(new Thread(BackgroundIo::shutdown, "WaystoneInjector-IO-Shutdown"));
+    }
+
+    private BackgroundIo() {
+    }
+
+    /**
+     * Run a task (typically a read) on the I/O thread.
+     */
+    public static void execute(Runnable task) {
+        EXECUTOR.execute(task);
+    }
+
+    /**
+     * Schedule a write of {@code path}. If a write is already pending for the path, its content is replaced
+     * and it keeps its original deadline.
+     * @param delayMs How long to wait for further changes before writing
+     */
+    public static void scheduleWrite(Path path, Supplier<String> content, long delayMs) {
+        if (PENDING_WRITES.put(path, content) == null) {
+            EXECUTOR.schedule(() -> writePending(path), delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Write {@code path} as soon as possible if it has a pending write. Does not block the caller.
+     */
+    public static void flush(Path path) {
+        if (PENDING_WRITES.containsKey(path)) {
+            EXECUTOR.execute(() -> writePending(path));
+        }
+    }
+
+    /**
+     * Write every pending file on the calling thread. Used at shutdown, where the I/O thread may never run again.
+     */
+    public static void flushAllNow() {
+        for (Path path : PENDING_WRITES.keySet()) {
+            writePending(path);
+        }
+    }
+
+    /**
+     * Let queued tasks (e.g. order journal appends) finish, then write every pending file.
+     */
+    private static void shutdown() {
+        EXECUTOR.shutdown();
+        try {
+            if (!EXECUTOR.awaitTermination(SHUTDOWN_GRACE_MS, TimeUnit.MILLISECONDS)) {
+                LOGGER.warn("Background I/O still busy at shutdown; some queued tasks were not run");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushAllNow();
+    }
+
+    private static void writePending(Path path) {
+        Supplier<String> content = PENDING_WRITES.remove(path);
+        if (content == null) {
+            return; // Already written by an earlier flush
+        }
+
+        synchronized (WRITE_LOCK) {
+            try {
+                writeAtomically(path, content.get());
+            } catch (Exception e) {
+                LOGGER.warn("Failed to write {}: {}", path.getFileName(), e.getMessage());
+            }
+        }
+    }
+
+    private static void writeAtomically(Path path, String content) throws IOException {
+        writeAtomically(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Write {@code path} through a temp sibling on the calling thread. Meant for tasks already running on the
+     * I/O thread (via {@link #execute}) that write binary files.
+     */
+    public static void writeAtomically(Path path, byte[] content) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(temp, content);
+        try {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.waystoneinjector.client;
 
 import com.example.waystoneinjector.client.gui.GuiThemeAtlas;
+import com.example.waystoneinjector.client.gui.PortalSheets;
+import com.example.waystoneinjector.client.gui.TextureResolver;
 import com.example.waystoneinjector.client.gui.widget.ThemedButton;
 import com.example.waystoneinjector.config.WaystoneConfig;
 import com.mojang.blaze3d.systems.RenderSystem;
@@ -28,9 +30,8 @@ import org.lwjgl.glfw.GLFW;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -44,106 +45,17 @@ public class ClientEvents {
     private static final AtomicReference<EditBox> currentSearchBox = new AtomicReference<>(null);
     private static final AtomicReference<Screen> currentWaystoneScreen = new AtomicReference<>(null);
     private static final AtomicReference<Object> currentWaystoneList = new AtomicReference<>(null);
+    private static final AtomicReference<WaystoneListLayout> currentWaystoneListLayout = new AtomicReference<>(null);
     private static final AtomicReference<String> currentWaystoneType = new AtomicReference<>("regular");
     private static final AtomicLong lastWaystoneBlockClickMs = new AtomicLong(0L);
     
-    // Mystical portal overlay textures (26 frames for random selection)
-    private static final ResourceLocation[] MYSTICAL_PORTALS = new ResourceLocation[26];
-    static {
-        for (int i = 1; i <= 26; i++) {
-            MYSTICAL_PORTALS[i-1] = new ResourceLocation("waystoneinjector", "textures/gui/mystical/mystic_" + i + ".png");
-        }
-    }
-    
-
-    
-    // Animated portal background for waystone GUIs
-    private static final ResourceLocation PORTAL_ANIMATION = new ResourceLocation("waystoneinjector", "textures/gui/portal_animation.png");
-    private static final ResourceLocation PORTSTONE_PORTAL = new ResourceLocation("waystoneinjector", "textures/gui/portstone_portal.png");
+    // Background rendering runs every frame; log it at most every few seconds
+    private static final DebugLog.RateLimited BACKGROUND_LOG = DebugLog.rateLimited(5, TimeUnit.SECONDS);
+    private static final DebugLog.RateLimited SHARESTONE_BACKGROUND_LOG = DebugLog.rateLimited(5, TimeUnit.SECONDS);
 
     private static final ResourceLocation ZE_VOIDROBE_BUTTON_SHEET = new ResourceLocation(
         "waystoneinjector", "textures/gui/ze_voidrobe_button.png"
     );
-
-    private static final int PORTAL_FRAME_W = 256;
-    private static final int PORTAL_FRAME_H = 256;
-    private static final int PORTAL_SHEET_W = 256;
-    private static final int PORTAL_SHEET_H = 4096;
-    private static final int PORTAL_FRAMES = PORTAL_SHEET_H / PORTAL_FRAME_H;
-
-    private static final int SHARESTONE_FRAME_W = 16;
-    private static final int SHARESTONE_FRAME_H = 16;
-    private static final int SHARESTONE_SHEET_W = 16;
-    private static final int SHARESTONE_SHEET_H = 512;
-    private static final int SHARESTONE_FRAMES = SHARESTONE_SHEET_H / SHARESTONE_FRAME_H;
-
-    private static final long PORTAL_FRAME_TIME_MS = 100L; // matches frametime=2 (approx) at 20 TPS
-
-    private static final Map<String, ResourceLocation> PORTAL_BACKGROUND_CACHE = new HashMap<>();
-
-    private static void blitAnimatedPortalSheet(GuiGraphics graphics, ResourceLocation texture, int x, int y) {
-        int frame = (int) ((System.currentTimeMillis() / PORTAL_FRAME_TIME_MS) % PORTAL_FRAMES);
-        int v = frame * PORTAL_FRAME_H;
-        graphics.blit(texture, x, y,
-            PORTAL_FRAME_W, PORTAL_FRAME_H,
-            0.0F, (float) v,
-            PORTAL_FRAME_W, PORTAL_FRAME_H,
-            PORTAL_SHEET_W, PORTAL_SHEET_H);
-    }
-
-    private static void blitAnimatedSharestonePortalSheet(GuiGraphics graphics, ResourceLocation texture, int x, int y) {
-        int frame = (int) ((System.currentTimeMillis() / PORTAL_FRAME_TIME_MS) % SHARESTONE_FRAMES);
-        int v = frame * SHARESTONE_FRAME_H;
-        graphics.blit(texture, x, y,
-            256, 256,
-            0.0F, (float) v,
-            SHARESTONE_FRAME_W, SHARESTONE_FRAME_H,
-            SHARESTONE_SHEET_W, SHARESTONE_SHEET_H);
-    }
-
-    private static ResourceLocation getPortalBackgroundForType(String waystoneType) {
-        if (waystoneType == null || waystoneType.isBlank()) {
-            waystoneType = "regular";
-        }
-
-        if (waystoneType.equals("portstone")) {
-            return PORTSTONE_PORTAL;
-        }
-
-        ResourceLocation cached = PORTAL_BACKGROUND_CACHE.get(waystoneType);
-        if (cached != null) {
-            return cached;
-        }
-
-        ResourceLocation candidate = new ResourceLocation("waystoneinjector", "textures/gui/waystone_portals/portal_animation_" + waystoneType + ".png");
-        ResourceLocation resolved;
-        try {
-            resolved = Minecraft.getInstance().getResourceManager().getResource(candidate).isPresent() ? candidate : PORTAL_ANIMATION;
-        } catch (Exception e) {
-            resolved = PORTAL_ANIMATION;
-        }
-
-        PORTAL_BACKGROUND_CACHE.put(waystoneType, resolved);
-        return resolved;
-    }
-    
-    // Sharestone portal backgrounds (animated, color-specific)
-    private static final ResourceLocation SHARESTONE_PORTAL_BLACK = new ResourceLocation("waystoneinjector", "textures/gui/sharestone_portals/black.png");
-    private static final ResourceLocation SHARESTONE_PORTAL_BLUE = new ResourceLocation("waystoneinjector", "textures/gui/sharestone_portals/blue.png");
-    private static final ResourceLocation SHARESTONE_PORTAL_BROWN = new ResourceLocation("waystoneinjector", "textures/gui/sharestone_portals/brown.png");
-    private static final ResourceLocation SHARESTONE_PORTAL_CYAN = new ResourceLocation("waystoneinjector", "textures/gui/sharestone_portals/cyan.png");
-    private static final ResourceLocation SHARESTONE_PORTAL_GRAY = new ResourceLocation("waystoneinjector", "textures/gui/sharestone_portals/gray.png");
-    private static final ResourceLocation SHARESTONE_PORTAL_GREEN = new ResourceLocation("waystoneinjector", "textures/gui/sharestone_portals/green.png");
-    private static final ResourceLocation SHARESTONE_PORTAL_LIGHT_BLUE = new ResourceLocation("waystoneinjector", "textures/gui/sharestone_portals/light_blue.png");
-    private static final ResourceLocation SHARESTONE_PORTAL_LIGHT_GRAY = new ResourceLocation("waystoneinjector", "textures/gui/sharestone_portals/light_gray.png");
-    private static final ResourceLocation SHARESTONE_PORTAL_LIME = new ResourceLocation("waystoneinjector", "textures/gui/sharestone_portals/lime.png");
-    private static final ResourceLocation SHARESTONE_PORTAL_MAGENTA = new ResourceLocation("waystoneinjector", "textures/gui/sharestone_portals/magenta.png");
-    private static final ResourceLocation SHARESTONE_PORTAL_ORANGE = new ResourceLocation("waystoneinjector", "textures/gui/sharestone_portals/orange.png");
-    private static final ResourceLocation SHARESTONE_PORTAL_PINK = new ResourceLocation("waystoneinjector", "textures/gui/sharestone_portals/pink.png");
-    private static final ResourceLocation SHARESTONE_PORTAL_PURPLE = new ResourceLocation("waystoneinjector", "textures/gui/sharestone_portals/purple.png");
-    private static final ResourceLocation SHARESTONE_PORTAL_RED = new ResourceLocation("waystoneinjector", "textures/gui/sharestone_portals/red.png");
-    private static final ResourceLocation SHARESTONE_PORTAL_WHITE = new ResourceLocation("waystoneinjector", "textures/gui/sharestone_portals/white.png");
-    private static final ResourceLocation SHARESTONE_PORTAL_YELLOW = new ResourceLocation("waystoneinjector", "textures/gui/sharestone_portals/yellow.png");
     
     // Track the specific sharestone color variant
     private static final ThreadLocal<String> currentSharestoneColor = ThreadLocal.withInitial(() -> "purple");
@@ -638,6 +550,14 @@ public class ClientEvents {
         }
     }
     
+    @SubscribeEvent
+    public static void onScreenClosing(ScreenEvent.Closing event) {
+        if (event.getScreen() == currentWaystoneScreen.get()) {
+            // Persist any waystone types registered while the menu was open
+            WaystoneTypeRegistry.flush();
+        }
+    }
+    
     @SubscribeEvent
     public static void onMouseClicked(ScreenEvent.MouseButtonPressed.Pre event) {
         EditBox searchBox = currentSearchBox.get();
@@ -746,14 +666,21 @@ public class ClientEvents {
         return null;
     }
     
+    private static void setWaystoneList(Object list) {
+        currentWaystoneList.set(list);
+        // Resolve the list's accessors once here so rendering doesn't reflect every frame
+        currentWaystoneListLayout.set(list != null ? WaystoneListLayout.resolve(list) : null);
+    }
+    
     private static void findWaystoneList(Screen screen) {
+        setWaystoneList(null);
         try {
             // Try to find the waystone list widget for keyboard navigation
             Field listField = findField(screen.getClass(), "waystoneList", "list");
             if (listField != null) {
                 listField.setAccessible(true);
                 Object list = listField.get(screen);
-                currentWaystoneList.set(list);
+                setWaystoneList(list);
                 System.out.println("[WaystoneInjector] Found waystone list widget for keyboard navigation");
                 return;
             }
@@ -766,7 +693,7 @@ public class ClientEvents {
                     if (value == null) continue;
                     String simpleName = value.getClass().getSimpleName();
                     if (simpleName.contains("WaystoneList") || simpleName.contains("SelectionList") || simpleName.contains("List")) {
-                        currentWaystoneList.set(value);
+                        setWaystoneList(value);
                         System.out.println("[WaystoneInjector] Found waystone list widget via field scan: " + value.getClass().getName());
                         return;
                     }
@@ -781,7 +708,7 @@ public class ClientEvents {
                     if (child == null) continue;
                     String simpleName = child.getClass().getSimpleName();
                     if (simpleName.contains("WaystoneList") || simpleName.contains("SelectionList") || simpleName.contains("List")) {
-                        currentWaystoneList.set(child);
+                        setWaystoneList(child);
                         System.out.println("[WaystoneInjector] Found waystone list widget via children(): " + child.getClass().getName());
                         return;
                     }
@@ -801,7 +728,7 @@ public class ClientEvents {
         
         String waystoneType = currentWaystoneType.get();
         GuiThemeAtlas.Sprite bgSprite = GuiThemeAtlas.background(waystoneType);
-        System.out.println("[WaystoneInjector] Rendering background - Type: " + waystoneType + ", Texture: " + bgSprite.texture());
+        BACKGROUND_LOG.log("Rendering background - Type: {}, Texture: {}", waystoneType, bgSprite.texture());
         
         GuiGraphics graphics = event.getGuiGraphics();
         RenderSystem.setShaderColor(1.0F, 1.0F, 1.0F, 1.0F);
@@ -821,33 +748,29 @@ public class ClientEvents {
         // For all waystones (except sharestones), render animated portal background first
         if (!waystoneType.equals("sharestone")) {
             // Render appropriate portal animation based on type (fallback to default)
-            ResourceLocation portalBackground = getPortalBackgroundForType(waystoneType);
-            blitAnimatedPortalSheet(graphics, portalBackground, x, y);
+            ResourceLocation portalBackground = TextureResolver.portalBackground(waystoneType);
+            PortalSheets.blitPortal(graphics, portalBackground, x, y);
             
             // Add mystical portal overlay for extra movement
-            int randomFrame = (int)((System.currentTimeMillis() / 100) % 26);
-            graphics.blit(MYSTICAL_PORTALS[randomFrame], x, y, 0, 0, 256, 256, 256, 256);
+            PortalSheets.blitMystical(graphics, x, y);
         }
         
         // For sharestones, render color-specific portal background then sharestone.png on top
         if (waystoneType.equals("sharestone")) {
             String color = currentSharestoneColor.get();
-            ResourceLocation sharestonePortal = getSharestonePortalTexture(color);
+            ResourceLocation sharestonePortal = TextureResolver.sharestonePortal(color);
             
-            System.out.println("[WaystoneInjector] Rendering sharestone - Color: " + color + ", Portal: " + sharestonePortal);
+            SHARESTONE_BACKGROUND_LOG.log("Rendering sharestone - Color: {}, Portal: {}", color, sharestonePortal);
             
             // Render color-specific animated portal background
-            blitAnimatedSharestonePortalSheet(graphics, sharestonePortal, x, y);
+            PortalSheets.blitSharestonePortal(graphics, sharestonePortal, x, y);
             
             // Add mystical portal overlay for extra movement
-            int randomFrame = (int)((System.currentTimeMillis() / 100) % 26);
-            graphics.blit(MYSTICAL_PORTALS[randomFrame], x, y, 0, 0, 256, 256, 256, 256);
+            PortalSheets.blitMystical(graphics, x, y);
             
             // Render sharestone atlas background on top
             GuiThemeAtlas.Sprite shareBg = GuiThemeAtlas.background("sharestone");
             graphics.blit(shareBg.texture(), x, y, 256, 256, (float) shareBg.u(), (float) shareBg.v(), shareBg.w(), shareBg.h(), shareBg.textureW(), shareBg.textureH());
-            
-            System.out.println("[WaystoneInjector] Sharestone rendering complete");
         } else {
             // For regular waystones, render the main texture on top of portal animation
             graphics.blit(bgSprite.texture(), x, y, 256, 256, (float) bgSprite.u(), (float) bgSprite.v(), bgSprite.w(), bgSprite.h(), bgSprite.textureW(), bgSprite.textureH());
@@ -861,8 +784,8 @@ public class ClientEvents {
         Screen screen = currentWaystoneScreen.get();
         if (screen == null || event.getScreen() != screen) return;
         
-        Object waystoneList = currentWaystoneList.get();
-        if (waystoneList == null) return;
+        WaystoneListLayout listLayout = currentWaystoneListLayout.get();
+        if (listLayout == null) return;
         
         GuiGraphics graphics = event.getGuiGraphics();
         
@@ -870,93 +793,13 @@ public class ClientEvents {
         int buttonColor = WaystoneTypeRegistry.getColorForType(currentWaystoneType.get());
         
         try {
-            // Get the waystone entries from the list
-            Object children = null;
-
-            // Prefer a children() method if present (some versions store entries behind a method, not a field)
-            try {
-                Method childrenMethod = waystoneList.getClass().getMethod("children");
-                children = childrenMethod.invoke(waystoneList);
-            } catch (Exception ignored) {
-                // Fall back to field access below
-            }
-
-            if (children == null) {
-                Field childrenField = findField(waystoneList.getClass(), "children", "entries");
-                if (childrenField != null) {
-                    childrenField.setAccessible(true);
-                    children = childrenField.get(waystoneList);
-                }
-            }
-                
-            if (children instanceof List) {
-                    @SuppressWarnings("unchecked")
-                    List<Object> entries = (List<Object>) children;
-                    
-                    // Try to get list position
-                    Field yField = findField(waystoneList.getClass(), "y0", "top");
-                    Field xField = findField(waystoneList.getClass(), "x0", "left");
-                    
-                    if (yField != null && xField != null) {
-                        yField.setAccessible(true);
-                        xField.setAccessible(true);
-                        
-                        int listY = yField.getInt(waystoneList);
-                        int listX = xField.getInt(waystoneList);
-                        
-                        // Render colored overlay for each waystone entry
-                        for (int i = 0; i < entries.size(); i++) {
-                            Object entry = entries.get(i);
-                            
-                            // Try to get waystone name from entry
-                            Field waystoneField = findField(entry.getClass(), "waystone", "data");
-                            if (waystoneField != null) {
-                                waystoneField.setAccessible(true);
-                                Object waystone = waystoneField.get(entry);
-                                
-                                if (waystone != null) {
-                                    Field nameField = findField(waystone.getClass(), "name", "waystoneData");
-                                    if (nameField != null) {
-                                        nameField.setAccessible(true);
-                                        Object name = nameField.get(waystone);
-                                        
-                                        if (name != null) {
-                                            String waystoneName = name.toString();
-                                            String type = WaystoneTypeRegistry.getWaystoneType(waystoneName);
-                                            
-                                            System.out.println("[WaystoneInjector] Entry " + i + ": " + waystoneName + " -> type: " + type);
-                                            
-                                            if (!type.equals("unknown")) {
-                                                int entryY = listY + (i * 36); // Approximate entry height
-                                                
-                                                // Render waystone-type overlay texture based on THIS waystone's type
-                                                GuiThemeAtlas.Sprite overlaySprite = GuiThemeAtlas.overlay(type);
-                                                System.out.println("[WaystoneInjector] Rendering overlay at X=" + listX + ", Y=" + entryY + ", texture=" + (overlaySprite == null ? null : overlaySprite.texture()));
-                                                
-                                                if (overlaySprite != null) {
-                                                    RenderSystem.enableBlend();
-                                                    RenderSystem.defaultBlendFunc();
-                                                    RenderSystem.setShaderColor(1.0F, 1.0F, 1.0F, 1.0F);
-                                                    graphics.blit(overlaySprite.texture(),
-                                                        listX, entryY,
-                                                        overlaySprite.w(), overlaySprite.h(),
-                                                        (float) overlaySprite.u(), (float) overlaySprite.v(),
-                                                        overlaySprite.w(), overlaySprite.h(),
-                                                        overlaySprite.textureW(), overlaySprite.textureH());
-                                                }
-                                            }
-                                        }
-                                    }
-                                }
-                            }
-                        }
-                    }
-            }
+            // Render waystone-type overlay textures behind the list entries
+            listLayout.renderOverlays(graphics);
             
             // Render colored overlays on custom server transfer buttons
             renderCustomButtonOverlays(graphics, screen, buttonColor);
             
-        } catch (Exception e) {
+        } catch (Throwable e) {
             // Silently fail - rendering is optional
         }
     }
@@ -1046,29 +889,7 @@ public class ClientEvents {
         return "regular";
     }
     
-    private static ResourceLocation getSharestonePortalTexture(String color) {
-        return switch (color) {
-            case "black" -> SHARESTONE_PORTAL_BLACK;
-            case "blue" -> SHARESTONE_PORTAL_BLUE;
-            case "brown" -> SHARESTONE_PORTAL_BROWN;
-            case "cyan" -> SHARESTONE_PORTAL_CYAN;
-            case "gray" -> SHARESTONE_PORTAL_GRAY;
-            case "green" -> SHARESTONE_PORTAL_GREEN;
-            case "light_blue" -> SHARESTONE_PORTAL_LIGHT_BLUE;
-            case "light_gray" -> SHARESTONE_PORTAL_LIGHT_GRAY;
-            case "lime" -> SHARESTONE_PORTAL_LIME;
-            case "magenta" -> SHARESTONE_PORTAL_MAGENTA;
-            case "orange" -> SHARESTONE_PORTAL_ORANGE;
-            case "pink" -> SHARESTONE_PORTAL_PINK;
-            case "purple" -> SHARESTONE_PORTAL_PURPLE;
-            case "red" -> SHARESTONE_PORTAL_RED;
-            case "white" -> SHARESTONE_PORTAL_WHITE;
-            case "yellow" -> SHARESTONE_PORTAL_YELLOW;
-            default -> SHARESTONE_PORTAL_PURPLE; // Default to purple
-        };
-    }
-    
-    private static Field findField(Class<?> clazz, String... fieldNames) {
+    static Field findField(Class<?> clazz, String... fieldNames) {
         for (String fieldName : fieldNames) {
             try {
                 Field field = clazz.getDeclaredField(fieldName);
@@ -0,0 +1,117 @@
+package com.example.waystoneinjector.client;
+
+import com.mojang.logging.LogUtils;
+import org.slf4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Verbose diagnostic logging for the mod, routed through SLF4J.
+ *
+ * Everything here is off unless {@code debug.verboseLogging} is enabled in the client config. The enabled
+ * flag is a cached volatile (updated on config load/reload), so a disabled call is a single field read.
+ * Parameterized messages are only formatted when they are actually logged; hot paths should still guard
+ * with {@link #isEnabled()} when building an argument costs something.
+ *
+ * Call sites that can fire every frame or every tick use a {@link RateLimited} instance, which logs at most
+ * once per interval and reports how many messages it dropped in between.
+ */
+public final class DebugLog {
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private static volatile boolean enabled = false;
+
+    private DebugLog() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean value) {
+        if (enabled != value) {
+            enabled = value;
+            LOGGER.info("Verbose logging {}", value ? "enabled" : "disabled");
+        }
+    }
+
+    public static void log(String message) {
+        if (enabled) {
+            LOGGER.info(message);
+        }
+    }
+
+    public static void log(String format, Object arg) {
+        if (enabled) {
+            LOGGER.info(format, arg);
+        }
+    }
+
+    public static void log(String format, Object arg1, Object arg2) {
+        if (enabled) {
+            LOGGER.info(format, arg1, arg2);
+        }
+    }
+
+    public static void log(String format, Object... args) {
+        if (enabled) {
+            LOGGER.info(format, args);
+        }
+    }
+
+    /**
+     * Create a rate limiter for one call site. Keep it in a static final field next to the call.
+     */
+    public static RateLimited rateLimited(long interval, TimeUnit unit) {
+        return new RateLimited(unit.toNanos(interval));
+    }
+
+    /**
+     * A call site that logs at most once per interval while verbose logging is enabled.
+     */
+    public static final class RateLimited {
+        private final long intervalNanos;
+        private final AtomicLong nextAllowedNanos = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicInteger suppressed = new AtomicInteger();
+
+        private RateLimited(long intervalNanos) {
+            this.intervalNanos = intervalNanos;
+        }
+
+        public void log(String message) {
+            if (enabled && acquire()) {
+                LOGGER.info(withSuppressed(message));
+            }
+        }
+
+        public void log(String format, Object arg) {
+            if (enabled && acquire()) {
+                LOGGER.info(withSuppressed(format), arg);
+            }
+        }
+
+        public void log(String format, Object arg1, Object arg2) {
+            if (enabled && acquire()) {
+                LOGGER.info(withSuppressed(format), arg1, arg2);
+            }
+        }
+
+        private boolean acquire() {
+            long now = System.nanoTime();
+            long next = nextAllowedNanos.get();
+            if ((next != Long.MIN_VALUE && now - next < 0) || !nextAllowedNanos.compareAndSet(next, now + intervalNanos)) {
+                suppressed.incrementAndGet();
+                return false;
+            }
+            return true;
+        }
+
+        private String withSuppressed(String format) {
+            int dropped = suppressed.getAndSet(0);
+            return dropped == 0 ? format : format + " (" + dropped + " similar suppressed)";
+        }
+    }
+}
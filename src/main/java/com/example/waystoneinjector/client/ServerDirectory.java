@@ -0,0 +1,211 @@
+package com.example.waystoneinjector.client;
+
+import com.mojang.logging.LogUtils;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ServerData;
+import net.minecraft.client.multiplayer.ServerList;
+import org.slf4j.Logger;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The saved multiplayer server list (servers.dat), parsed once and shared by everything in the mod that
+ * looks servers up (button icons, resource pack auto-accept).
+ *
+ * Entries are indexed by normalized address, host:port and host, so lookups are hash hits instead of a scan
+ * that re-normalizes every entry. The file's modification time is checked at most once per
+ * {@link #CHECK_INTERVAL_MS}; when something else rewrote it (e.g. the vanilla multiplayer screen), it is
+ * parsed again on the next lookup.
+ *
+ * Methods are synchronized: lookups come from the I/O thread as well as the client thread.
+ */
+@SuppressWarnings("null")
+public final class ServerDirectory {
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private static final Pattern IPV4_UNDERSCORE_PORT = Pattern.compile("^(\\d{1,3}(?:\\.\\d{1,3}){3})_(\\d{1,5})$");
+    private static final String DEFAULT_PORT = "25565";
+    private static final long CHECK_INTERVAL_MS = 1000L;
+
+    private static ServerList serverList;
+    private static long loadedModified = Long.MIN_VALUE;
+    private static long lastCheck;
+
+    // First entry wins in each index, matching the order a scan of the list would find them in
+    private static final Map<String, ServerData> byAddress = new HashMap<>();
+    private static final Map<String, ServerData> byHostPort = new HashMap<>();
+    private static final Map<String, ServerData> byHost = new HashMap<>();
+    private static final Map<String, ServerData> byHostWithoutPort = new HashMap<>();
+
+    private ServerDirectory() {
+    }
+
+    /**
+     * Best saved server for a button/redirect target: the same address, then the same host with a compatible
+     * port (either side may leave the port out), then a substring match for uncommon formats.
+     */
+    public static synchronized ServerData find(String address) {
+        refreshIfChanged();
+
+        String target = normalize(address);
+        ServerData match = byAddress.get(target);
+        if (match != null) return match;
+
+        String host = hostPart(target);
+        if (!host.isEmpty()) {
+            String port = portPartOrEmpty(target);
+            match = port.isEmpty() ? byHost.get(host) : byHostPort.get(host + ":" + port);
+            if (match == null && !port.isEmpty()) {
+                match = byHostWithoutPort.get(host);
+            }
+            if (match != null) return match;
+        }
+
+        // Only reached on a miss
+        if (!target.isEmpty()) {
+            for (int i = 0; i < serverList.size(); i++) {
+                ServerData server = serverList.get(i);
+                if (server == null || server.ip == null) continue;
+                String candidate = normalize(server.ip);
+                if (candidate.contains(target) || target.contains(candidate)) {
+                    return server;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Saved server with exactly this host and port (the default port when none is given).
+     */
+    public static synchronized ServerData findExact(String address) {
+        refreshIfChanged();
+        return byHostPort.get(hostPortKey(normalize(address)));
+    }
+
+    /**
+     * Parse servers.dat now, ignoring the check interval and modification time. Call this before changing entries
+     * that will be {@link #save() saved}, so the write can't overwrite edits made since the last parse (within
+     * the interval, or on filesystems with coarse modification times).
+     */
+    public static synchronized void reload() {
+        lastCheck = System.currentTimeMillis();
+        load(lastModified());
+    }
+
+    /**
+     * Append a server to the list. Call {@link #save()} afterwards to write it out.
+     */
+    public static synchronized void add(ServerData server) {
+        refreshIfChanged();
+        serverList.add(server, false);
+        index(server);
+    }
+
+    /**
+     * Write the list (including changes made to its {@link ServerData} entries) back to servers.dat.
+     */
+    public static synchronized void save() {
+        if (serverList == null) return;
+        serverList.save();
+        // Our own write; no need to parse it again
+        loadedModified = lastModified();
+    }
+
+    /**
+     * Lowercased address without scheme prefixes or paths, with "1.2.3.4_25565" style ports turned into ":25565".
+     */
+    public static String normalize(String address) {
+        if (address == null) return "";
+        String s = address.trim().toLowerCase();
+        // Strip common scheme-ish prefixes if present
+        if (s.startsWith("minecraft://")) s = s.substring("minecraft://".length());
+        if (s.startsWith("mc://")) s = s.substring("mc://".length());
+        // Strip trailing path/query fragments (just in case)
+        int slash = s.indexOf('/');
+        if (slash >= 0) s = s.substring(0, slash);
+        int q = s.indexOf('?');
+        if (q >= 0) s = s.substring(0, q);
+
+        if (s.indexOf(':') >= 0) return s;
+        Matcher m = IPV4_UNDERSCORE_PORT.matcher(s);
+        if (m.matches()) {
+            return m.group(1) + ":" + m.group(2);
+        }
+        return s;
+    }
+
+    /**
+     * Host of a {@link #normalize normalized} address.
+     */
+    public static String hostPart(String normalized) {
+        int colon = normalized.indexOf(':');
+        return colon >= 0 ? normalized.substring(0, colon) : normalized;
+    }
+
+    private static String portPartOrEmpty(String normalized) {
+        int colon = normalized.indexOf(':');
+        return colon >= 0 ? normalized.substring(colon + 1) : "";
+    }
+
+    private static String hostPortKey(String normalized) {
+        String port = portPartOrEmpty(normalized);
+        return hostPart(normalized) + ":" + (port.isEmpty() ? DEFAULT_PORT : port);
+    }
+
+    private static void refreshIfChanged() {
+        long now = System.currentTimeMillis();
+        if (serverList != null && now - lastCheck < CHECK_INTERVAL_MS) return;
+        lastCheck = now;
+
+        long modified = lastModified();
+        if (serverList != null && modified == loadedModified) return;
+        load(modified);
+    }
+
+    private static void load(long modified) {
+        ServerList loaded = new ServerList(Minecraft.getInstance());
+        loaded.load();
+        serverList = loaded;
+        loadedModified = modified;
+
+        byAddress.clear();
+        byHostPort.clear();
+        byHost.clear();
+        byHostWithoutPort.clear();
+        for (int i = 0; i < loaded.size(); i++) {
+            index(loaded.get(i));
+        }
+        DebugLog.log("Indexed {} saved servers", loaded.size());
+    }
+
+    private static void index(ServerData server) {
+        if (server == null || server.ip == null) return;
+        String normalized = normalize(server.ip);
+        if (normalized.isEmpty()) return;
+
+        String host = hostPart(normalized);
+        byAddress.putIfAbsent(normalized, server);
+        byHostPort.putIfAbsent(hostPortKey(normalized), server);
+        byHost.putIfAbsent(host, server);
+        if (portPartOrEmpty(normalized).isEmpty()) {
+            byHostWithoutPort.putIfAbsent(host, server);
+        }
+    }
+
+    private static long lastModified() {
+        try {
+            Path file = Minecraft.getInstance().gameDirectory.toPath().resolve("servers.dat");
+            return Files.exists(file) ? Files.getLastModifiedTime(file).toMillis() : 0L;
+        } catch (Exception e) {
+            LOGGER.debug("Couldn't stat servers.dat: {}", e.getMessage());
+            return 0L;
+        }
+    }
+}
@@ -3,7 +3,6 @@ package com.example.waystoneinjector.client;
 import com.example.waystoneinjector.config.WaystoneConfig;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.multiplayer.ServerData;
-import net.minecraft.client.multiplayer.ServerList;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.api.distmarker.OnlyIn;
 import net.minecraftforge.event.TickEvent;
@@ -142,45 +141,33 @@ public class ServerSettingsManager {
      */
     private static void updateServerSettings(Minecraft mc) {
         try {
-            @SuppressWarnings("null")
-            ServerList serverList = new ServerList(mc);
-            serverList.load();
-            
             int updatedCount = 0;
             int addedCount = 0;
             
+            // Start from the file as it is now; the changes below are saved over it
+            ServerDirectory.reload();
+            
             for (String configuredAddress : configuredServers) {
-                boolean found = false;
-                
                 // Check if server already exists in the list
-                for (int i = 0; i < serverList.size(); i++) {
-                    ServerData serverData = serverList.get(i);
-                    String existingAddress = normalizeAddress(serverData.ip);
-                    
-                    if (existingAddress.equals(configuredAddress)) {
-                        found = true;
-                        
-                        // Update resource pack settings
-                        if (serverData.getResourcePackStatus() != ServerData.ServerPackStatus.ENABLED) {
-                            serverData.setResourcePackStatus(ServerData.ServerPackStatus.ENABLED);
-                            updatedCount++;
-                            System.out.println("[WaystoneInjector] ✓ Updated server " + configuredAddress + " to auto-accept resource packs");
-                        } else {
-                            System.out.println("[WaystoneInjector] ✓ Server " + configuredAddress + " already configured for resource packs");
-                        }
-                        break;
+                ServerData serverData = ServerDirectory.findExact(configuredAddress);
+                if (serverData != null) {
+                    // Update resource pack settings
+                    if (serverData.getResourcePackStatus() != ServerData.ServerPackStatus.ENABLED) {
+                        serverData.setResourcePackStatus(ServerData.ServerPackStatus.ENABLED);
+                        updatedCount++;
+                        System.out.println("[WaystoneInjector] ✓ Updated server " + configuredAddress + " to auto-accept resource packs");
+                    } else {
+                        System.out.println("[WaystoneInjector] ✓ Server " + configuredAddress + " already configured for resource packs");
                     }
-                }
-                
-                // If server not found, add it
-                if (!found) {
+                } else {
+                    // If server not found, add it
                     String[] parts = configuredAddress.split(":");
                     String host = parts[0];
                     String displayName = host.substring(0, 1).toUpperCase() + host.substring(1);
                     
                     ServerData newServer = new ServerData(displayName, configuredAddress, false);
                     newServer.setResourcePackStatus(ServerData.ServerPackStatus.ENABLED);
-                    serverList.add(newServer, false);
+                    ServerDirectory.add(newServer);
                     addedCount++;
                     System.out.println("[WaystoneInjector] ✓ Added new server " + configuredAddress + " with resource packs enabled");
                 }
@@ -188,7 +175,7 @@ public class ServerSettingsManager {
             
             // Save the updated server list
             if (updatedCount > 0 || addedCount > 0) {
-                serverList.save();
+                ServerDirectory.save();
                 System.out.println("[WaystoneInjector] ========================================");
                 System.out.println("[WaystoneInjector] Server settings updated successfully!");
                 System.out.println("[WaystoneInjector] - Updated: " + updatedCount + " servers");
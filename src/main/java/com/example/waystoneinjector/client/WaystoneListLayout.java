@@ -0,0 +1,204 @@
+package com.example.waystoneinjector.client;
+
+import com.example.waystoneinjector.client.gui.GuiThemeAtlas;
+import com.mojang.blaze3d.systems.RenderSystem;
+import net.minecraft.client.gui.GuiGraphics;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Accessors for the Waystones list widget, resolved once when the waystone screen is detected.
+ *
+ * The entries, list position and each entry's waystone name are read through cached method handles instead
+ * of per-frame reflection. The overlay rows for the current entries are kept in a snapshot that is only
+ * rebuilt when the entry list (or the type registry, or the GUI atlases) changes.
+ */
+@SuppressWarnings("null")
+final class WaystoneListLayout {
+
+    private static final int ENTRY_HEIGHT = 36; // Approximate entry height
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType OBJECT_GETTER = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType INT_GETTER = MethodType.methodType(int.class, Object.class);
+
+    // entry -> waystone and waystone -> name, per class (empty when the class has no such field)
+    private static final ClassValue<Optional<MethodHandle>> ENTRY_WAYSTONE = fieldGetter("waystone", "data");
+    private static final ClassValue<Optional<MethodHandle>> WAYSTONE_NAME = fieldGetter("name", "waystoneData");
+
+    private final Object list;
+    private final MethodHandle children;
+    private final MethodHandle x;
+    private final MethodHandle y;
+
+    private Snapshot snapshot = Snapshot.EMPTY;
+
+    private WaystoneListLayout(Object list, MethodHandle children, MethodHandle x, MethodHandle y) {
+        this.list = list;
+        this.children = children;
+        this.x = x;
+        this.y = y;
+    }
+
+    static WaystoneListLayout resolve(Object list) {
+        Class<?> listClass = list.getClass();
+        return new WaystoneListLayout(list,
+            childrenGetter(listClass),
+            getter(ClientEvents.findField(listClass, "x0", "left"), INT_GETTER),
+            getter(ClientEvents.findField(listClass, "y0", "top"), INT_GETTER));
+    }
+
+    /**
+     * Draw the waystone-type overlay texture behind each entry whose type is known.
+     */
+    void renderOverlays(GuiGraphics graphics) throws Throwable {
+        if (children == null || x == null || y == null) return;
+
+        Object value = (Object) children.invokeExact(list);
+        if (!(value instanceof List<?> entries)) return;
+
+        Snapshot current = snapshot;
+        int registryVersion = WaystoneTypeRegistry.version();
+        int atlasGeneration = GuiThemeAtlas.generation();
+        if (!current.matches(entries, registryVersion, atlasGeneration)) {
+            current = Snapshot.capture(entries, registryVersion, atlasGeneration);
+            snapshot = current;
+        }
+        if (current.rows.length == 0) return;
+
+        int listX = (int) x.invokeExact(list);
+        int listY = (int) y.invokeExact(list);
+
+        RenderSystem.enableBlend();
+        RenderSystem.defaultBlendFunc();
+        RenderSystem.setShaderColor(1.0F, 1.0F, 1.0F, 1.0F);
+        for (int i = 0; i < current.rows.length; i++) {
+            GuiThemeAtlas.Sprite overlaySprite = current.sprites[i];
+            int entryY = listY + (current.rows[i] * ENTRY_HEIGHT);
+            graphics.blit(overlaySprite.texture(),
+                listX, entryY,
+                overlaySprite.w(), overlaySprite.h(),
+                (float) overlaySprite.u(), (float) overlaySprite.v(),
+                overlaySprite.w(), overlaySprite.h(),
+                overlaySprite.textureW(), overlaySprite.textureH());
+        }
+    }
+
+    /**
+     * Overlay rows for one state of the entry list. The list is usually mutated in place when it is
+     * refiltered or reordered, so besides its identity every entry reference is compared (a pointer compare
+     * per row, far cheaper than resolving the names again).
+     */
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(null, new Object[0], 0, 0, new int[0], new GuiThemeAtlas.Sprite[0]);
+
+        final List<?> entries;
+        final Object[] entryRefs;
+        final int registryVersion;
+        final int atlasGeneration;
+        final int[] rows;
+        final GuiThemeAtlas.Sprite[] sprites;
+
+        private Snapshot(List<?> entries, Object[] entryRefs, int registryVersion, int atlasGeneration,
+                         int[] rows, GuiThemeAtlas.Sprite[] sprites) {
+            this.entries = entries;
+            this.entryRefs = entryRefs;
+            this.registryVersion = registryVersion;
+            this.atlasGeneration = atlasGeneration;
+            this.rows = rows;
+            this.sprites = sprites;
+        }
+
+        boolean matches(List<?> entries, int registryVersion, int atlasGeneration) {
+            int size = entries.size();
+            if (entries != this.entries
+                || size != entryRefs.length
+                || registryVersion != this.registryVersion
+                || atlasGeneration != this.atlasGeneration) {
+                return false;
+            }
+            for (int i = 0; i < size; i++) {
+                if (entries.get(i) != entryRefs[i]) return false;
+            }
+            return true;
+        }
+
+        static Snapshot capture(List<?> entries, int registryVersion, int atlasGeneration) throws Throwable {
+            int size = entries.size();
+            int[] rows = new int[size];
+            GuiThemeAtlas.Sprite[] sprites = new GuiThemeAtlas.Sprite[size];
+            int count = 0;
+
+            for (int i = 0; i < size; i++) {
+                String waystoneName = waystoneName(entries.get(i));
+                if (waystoneName == null) continue;
+
+                String type = WaystoneTypeRegistry.getWaystoneType(waystoneName);
+                if (type.equals("unknown")) continue;
+
+                GuiThemeAtlas.Sprite overlaySprite = GuiThemeAtlas.overlay(type);
+                if (overlaySprite != null) {
+                    rows[count] = i;
+                    sprites[count] = overlaySprite;
+                    count++;
+                }
+            }
+
+            return new Snapshot(entries, entries.toArray(),
+                registryVersion, atlasGeneration,
+                Arrays.copyOf(rows, count), Arrays.copyOf(sprites, count));
+        }
+
+        private static String waystoneName(Object entry) throws Throwable {
+            if (entry == null) return null;
+
+            Optional<MethodHandle> waystoneGetter = ENTRY_WAYSTONE.get(entry.getClass());
+            if (waystoneGetter.isEmpty()) return null;
+            Object waystone = (Object) waystoneGetter.get().invokeExact(entry);
+            if (waystone == null) return null;
+
+            Optional<MethodHandle> nameGetter = WAYSTONE_NAME.get(waystone.getClass());
+            if (nameGetter.isEmpty()) return null;
+            Object name = (Object) nameGetter.get().invokeExact(waystone);
+            return name != null ? name.toString() : null;
+        }
+    }
+
+    private static MethodHandle childrenGetter(Class<?> listClass) {
+        // Prefer a children() method if present (some versions store entries behind a method, not a field)
+        try {
+            Method childrenMethod = listClass.getMethod("children");
+            childrenMethod.setAccessible(true);
+            return LOOKUP.unreflect(childrenMethod).asType(OBJECT_GETTER);
+        } catch (Exception ignored) {
+            // Fall back to field access below
+        }
+        return getter(ClientEvents.findField(listClass, "children", "entries"), OBJECT_GETTER);
+    }
+
+    private static MethodHandle getter(Field field, MethodType type) {
+        if (field == null) return null;
+        try {
+            field.setAccessible(true);
+            return LOOKUP.unreflectGetter(field).asType(type);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static ClassValue<Optional<MethodHandle>> fieldGetter(String... fieldNames) {
+        return new ClassValue<>() {
+            @Override
+            protected Optional<MethodHandle> computeValue(Class<?> type) {
+                return Optional.ofNullable(getter(ClientEvents.findField(type, fieldNames), OBJECT_GETTER));
+            }
+        };
+    }
+}
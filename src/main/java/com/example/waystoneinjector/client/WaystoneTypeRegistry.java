@@ -3,33 +3,44 @@ package com.example.waystoneinjector.client;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
-import net.minecraft.client.Minecraft;
 
-import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.Reader;
 import java.lang.reflect.Type;
-import java.util.HashMap;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Persistent registry that tracks waystone names to their types
+ *
+ * Registrations only update the in-memory map and mark the file dirty; {@link BackgroundIo} writes
+ * it a few seconds later (or sooner via {@link #flush()}), so registering never touches disk.
+ *
+ * The file is read on the I/O thread at client setup ({@link #loadAsync}); until it has been read,
+ * lookups simply answer "unknown" rather than blocking the caller.
  */
 public class WaystoneTypeRegistry {
     
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
-    private static final Map<String, String> waystoneTypes = new HashMap<>();
-    private static File registryFile;
+    private static final long SAVE_DELAY_MS = 5000L;
+    // Concurrent so the I/O thread can serialize it while the client thread registers
+    private static final Map<String, String> waystoneTypes = new ConcurrentHashMap<>();
+    private static volatile Path registryFile;
+    private static volatile boolean loaded = false;
+    // Set when something was registered before the file was read; saved once the load has merged it
+    private static volatile boolean saveAfterLoad = false;
+    // Bumped whenever a lookup could return something different, so callers can cache lookups
+    private static final AtomicInteger version = new AtomicInteger();
     
-    static {
-        try {
-            File gameDir = Minecraft.getInstance().gameDirectory;
-            File configDir = new File(gameDir, "config");
-            registryFile = new File(configDir, "waystoneinjector_types.json");
-            load();
-        } catch (Exception e) {
-            System.err.println("[WaystoneInjector] Failed to initialize type registry: " + e.getMessage());
-        }
+    /**
+     * Start reading the registry from the config directory on the background I/O thread
+     */
+    public static void loadAsync(Path configDir) {
+        registryFile = configDir.resolve("waystoneinjector_types.json");
+        BackgroundIo.execute(WaystoneTypeRegistry::load);
     }
     
     /**
@@ -38,7 +49,10 @@ public class WaystoneTypeRegistry {
     public static void registerWaystone(String name, String type) {
         if (name == null || type == null) return;
         
-        waystoneTypes.put(name, type);
+        if (type.equals(waystoneTypes.put(name, type))) {
+            return; // Already known with this type, nothing to save
+        }
+        version.incrementAndGet();
         save();
         System.out.println("[WaystoneInjector] Registered waystone '" + name + "' as type: " + type);
     }
@@ -50,6 +64,13 @@ public class WaystoneTypeRegistry {
         return waystoneTypes.getOrDefault(name, "unknown");
     }
     
+    /**
+     * Changes whenever registrations or a finished load may have changed lookup results
+     */
+    public static int version() {
+        return version.get();
+    }
+    
     /**
      * Check if a waystone type is known
      */
@@ -58,30 +79,60 @@ public class WaystoneTypeRegistry {
     }
     
     /**
-     * Save the registry to disk
+     * Write any pending changes now instead of waiting for the save timer (e.g. when the waystone screen closes)
+     */
+    public static void flush() {
+        Path path = registryFile;
+        if (path != null) {
+            BackgroundIo.flush(path);
+        }
+    }
+    
+    /**
+     * Mark the registry dirty; the background writer saves it after a short delay, coalescing bursts of changes
      */
     private static void save() {
-        try (FileWriter writer = new FileWriter(registryFile)) {
-            GSON.toJson(waystoneTypes, writer);
-        } catch (Exception e) {
-            System.err.println("[WaystoneInjector] Failed to save type registry: " + e.getMessage());
+        Path path = registryFile;
+        if (path == null || !loaded) {
+            // Writing now would replace the file with only what was registered so far
+            saveAfterLoad = true;
+            if (path == null || !loaded) {
+                return; // The load picks the flag up when it finishes (re-checked in case it just did)
+            }
         }
+        
+        BackgroundIo.scheduleWrite(path, () -> GSON.toJson(waystoneTypes), SAVE_DELAY_MS);
     }
     
     /**
-     * Load the registry from disk
+     * Load the registry from disk (runs on the I/O thread)
      */
     private static void load() {
-        if (!registryFile.exists()) {
+        try {
+            readRegistryFile();
+        } finally {
+            loaded = true;
+            version.incrementAndGet();
+            if (saveAfterLoad) {
+                saveAfterLoad = false;
+                save();
+            }
+        }
+    }
+    
+    private static void readRegistryFile() {
+        Path path = registryFile;
+        if (!Files.exists(path)) {
             System.out.println("[WaystoneInjector] No existing type registry found, creating new one");
             return;
         }
         
-        try (FileReader reader = new FileReader(registryFile)) {
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
             Type type = new TypeToken<Map<String, String>>(){}.getType();
-            Map<String, String> loaded = GSON.fromJson(reader, type);
-            if (loaded != null) {
-                waystoneTypes.putAll(loaded);
+            Map<String, String> fromFile = GSON.fromJson(reader, type);
+            if (fromFile != null) {
+                // Anything registered while the file was being read is newer, so keep it
+                fromFile.forEach(waystoneTypes::putIfAbsent);
                 System.out.println("[WaystoneInjector] Loaded " + waystoneTypes.size() + " waystone types from registry");
             }
         } catch (Exception e) {
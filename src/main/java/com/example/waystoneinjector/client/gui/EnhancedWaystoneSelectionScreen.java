@@ -1,9 +1,12 @@
 package com.example.waystoneinjector.client.gui;
 
+import com.example.waystoneinjector.client.BackgroundIo;
 import com.example.waystoneinjector.client.ClientEvents;
+import com.example.waystoneinjector.client.DebugLog;
 import com.example.waystoneinjector.client.gui.widget.ScrollableWaystoneList;
 import com.example.waystoneinjector.client.gui.widget.WaystoneSearchField;
 import com.example.waystoneinjector.client.gui.widget.AnimatedImageButton;
+import com.example.waystoneinjector.client.serverside.SyncedWaystones;
 import com.example.waystoneinjector.config.WaystoneConfig;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.components.Button;
@@ -13,14 +16,15 @@ import net.minecraft.resources.ResourceLocation;
 
 import java.lang.reflect.Method;
 import java.nio.file.Path;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Enhanced Waystone Selection Screen with Better Waystones Menu features
  * Phase 5: Drag-and-drop reordering
  * Phase 6: CTRL+hover detailed tooltips
+ * Sort toggle: custom order or nearest first ({@link WaystoneSpatialIndex})
  */
 @SuppressWarnings("null")
 public class EnhancedWaystoneSelectionScreen extends Screen {
@@ -30,8 +34,20 @@ public class EnhancedWaystoneSelectionScreen extends Screen {
     );
 
     private final Screen originalScreen;
-    private final List<WaystoneData> allWaystones;
-    private List<WaystoneData> filteredWaystones;
+    // Empty until the waystones arrive from the background (see pending)
+    private WaystoneDirectory directory;
+    private WaystoneSearchIndex searchIndex;
+    private WaystoneSpatialIndex spatialIndex;
+    private CompletableFuture<Loaded> pending;
+    // Directory ids currently listed (search hits in the current sort order)
+    private int[] shownIds;
+    
+    // Last applied search, reused to narrow results while the query only grows
+    private String lastQuery = "";
+    private int[] lastHits;
+    
+    // Nearest-first instead of the saved custom order
+    private boolean sortByDistance;
     
     private ScrollableWaystoneList waystoneList;
     private WaystoneSearchField searchField;
@@ -47,25 +63,74 @@ public class EnhancedWaystoneSelectionScreen extends Screen {
         Path orderFile = configDir.resolve("waystoneinjector-order.json");
         WaystoneOrderManager.setOrderFilePath(orderFile);
         
-        // Extract waystone data from original screen
-        System.out.println("[WaystoneInjector] Calling WaystoneExtractor...");
-        List<WaystoneData> extractedWaystones = WaystoneExtractor.extractWaystones(originalScreen);
-        System.out.println("[WaystoneInjector] WaystoneExtractor returned: " + extractedWaystones.size() + " waystones");
+        // Use the directory the server mod synced when there is one; otherwise extract it from the original screen.
+        // Only the raw capture happens here; conversion, ordering and indexing run in the background and the
+        // result is picked up in tick(), so the screen appears immediately with a loading list.
+        CompletableFuture<List<WaystoneData>> source;
+        List<WaystoneData> synced = SyncedWaystones.snapshot();
+        if (synced != null) {
+            DebugLog.log("Using synced waystone directory: {} waystones", synced.size());
+            source = CompletableFuture.completedFuture(synced);
+        } else {
+            DebugLog.log("Extracting waystones from the original screen");
+            source = WaystoneExtractor.extractWaystonesAsync(originalScreen);
+        }
+        this.pending = source.thenApplyAsync(Loaded::of, BackgroundIo::execute);
         
-        // Apply saved order
-        this.allWaystones = WaystoneOrderManager.applyOrder(extractedWaystones);
-        this.filteredWaystones = new ArrayList<>(allWaystones);
+        install(Loaded.EMPTY);
         
-        System.out.println("[WaystoneInjector] After applyOrder: " + allWaystones.size() + " waystones");
-        System.out.println("[WaystoneInjector] Filtered waystones: " + filteredWaystones.size());
+        System.out.println("[WaystoneInjector] ===============================================");
+    }
+    
+    /**
+     * Everything the screen needs for one list of waystones, built off the client thread.
+     */
+    private record Loaded(WaystoneDirectory directory, WaystoneSearchIndex searchIndex, WaystoneSpatialIndex spatialIndex) {
+        // Placeholder while loading; built without the saved order, which would read the order file here
+        static final Loaded EMPTY = empty();
         
-        // Print each waystone for debugging
-        for (int i = 0; i < allWaystones.size(); i++) {
-            WaystoneData ws = allWaystones.get(i);
-            System.out.println("[WaystoneInjector]   " + i + ": " + ws.getName() + " at " + ws.getX() + "," + ws.getY() + "," + ws.getZ());
+        private static Loaded empty() {
+            WaystoneDirectory directory = WaystoneDirectory.of(List.of());
+            return new Loaded(directory, WaystoneSearchIndex.build(directory), WaystoneSpatialIndex.build(directory));
         }
         
-        System.out.println("[WaystoneInjector] ===============================================");
+        static Loaded of(List<WaystoneData> waystones) {
+            // Apply saved order
+            WaystoneDirectory directory = WaystoneDirectory.of(WaystoneOrderManager.applyOrder(waystones));
+            return new Loaded(directory, WaystoneSearchIndex.build(directory), WaystoneSpatialIndex.build(directory));
+        }
+    }
+    
+    private void install(Loaded loaded) {
+        this.directory = loaded.directory();
+        this.searchIndex = loaded.searchIndex();
+        this.spatialIndex = loaded.spatialIndex();
+        // Keep whatever was typed while loading
+        this.lastHits = searchIndex.search(lastQuery);
+        this.shownIds = displayOrder(lastHits);
+        if (this.waystoneList != null) {
+            this.waystoneList.setDirectory(directory, shownIds);
+        }
+    }
+    
+    /**
+     * Client thread: switch to the loaded waystones once the background work is done.
+     */
+    private void pollPending() {
+        if (pending == null || !pending.isDone()) {
+            return;
+        }
+        Loaded loaded;
+        try {
+            loaded = pending.join();
+        } catch (Exception e) {
+            System.err.println("[WaystoneInjector] Failed to load waystones: " + e.getMessage());
+            loaded = Loaded.EMPTY;
+        }
+        pending = null;
+        install(loaded);
+        
+        DebugLog.log("Loaded {} waystones", directory.size());
     }
     
     @Override
@@ -73,8 +138,8 @@ public class EnhancedWaystoneSelectionScreen extends Screen {
         super.init();
         
         System.out.println("[WaystoneInjector] ========== INITIALIZING SCREEN ==========");
-        System.out.println("[WaystoneInjector] allWaystones size: " + allWaystones.size());
-        System.out.println("[WaystoneInjector] filteredWaystones size: " + filteredWaystones.size());
+        System.out.println("[WaystoneInjector] directory size: " + directory.size());
+        System.out.println("[WaystoneInjector] shown waystones: " + shownIds.length);
         
         // Create search field at top
         int searchWidth = 300;
@@ -86,23 +151,41 @@ public class EnhancedWaystoneSelectionScreen extends Screen {
             20
         );
         this.searchField.setOnSearchChanged(this::onSearchChanged);
+        if (!lastQuery.isEmpty()) {
+            // Re-init (e.g. window resize) keeps the active filter visible in the new field
+            this.searchField.setValue(lastQuery);
+        }
         this.addRenderableWidget(searchField);
         
+        // Sort mode toggle next to the search field
+        this.addRenderableWidget(Button.builder(
+            sortLabel(),
+            btn -> {
+                sortByDistance = !sortByDistance;
+                btn.setMessage(sortLabel());
+                showHits(lastHits);
+            }
+        ).bounds(this.width / 2 + searchWidth / 2 + 4, 20, 80, 20).build());
+        
         System.out.println("[WaystoneInjector] Search field created");
         
         // Create scrollable waystone list below search
         int listWidth = 300;
         int listHeight = this.height - 110; // Leave space for search, title, and close button
         
-        System.out.println("[WaystoneInjector] Creating ScrollableWaystoneList with " + filteredWaystones.size() + " waystones");
+        System.out.println("[WaystoneInjector] Creating ScrollableWaystoneList with " + shownIds.length + " waystones");
         this.waystoneList = new ScrollableWaystoneList(
             this.width / 2 - listWidth / 2,
             45,
             listWidth,
             listHeight,
-            this.filteredWaystones,
+            this.directory,
+            this.shownIds,
             this::onWaystoneSelected
         );
+        // Dragging only makes sense for the custom order
+        this.waystoneList.setReorderEnabled(!sortByDistance);
+        this.waystoneList.setLoading(pending != null);
         
         this.addRenderableWidget(waystoneList);
         System.out.println("[WaystoneInjector] ScrollableWaystoneList added to screen");
@@ -221,19 +304,43 @@ public class EnhancedWaystoneSelectionScreen extends Screen {
     }
     
     private void onSearchChanged(String query) {
-        if (query.isEmpty()) {
-            filteredWaystones = new ArrayList<>(allWaystones);
-        } else {
-            String lowerQuery = query.toLowerCase();
-            filteredWaystones = allWaystones.stream()
-                .filter(ws -> ws.getName().toLowerCase().contains(lowerQuery) ||
-                             ws.getDimensionName().toLowerCase().contains(lowerQuery))
-                .collect(Collectors.toList());
+        // Typing more characters can only remove hits: re-check the previous hits instead of the whole index.
+        // Deletions (or any other edit) go back to a full index lookup.
+        int[] hits = WaystoneSearchIndex.narrows(query, lastQuery)
+            ? searchIndex.narrow(lastHits, query)
+            : searchIndex.search(query);
+        lastQuery = query;
+        
+        if (Arrays.equals(hits, lastHits)) {
+            return; // Same result set, keep the current list
         }
+        lastHits = hits;
         
-        waystoneList.updateWaystones(filteredWaystones);
+        showHits(hits);
         
-        System.out.println("[WaystoneInjector] Search: '" + query + "' - " + filteredWaystones.size() + " results");
+        System.out.println("[WaystoneInjector] Search: '" + query + "' - " + shownIds.length + " results");
+    }
+    
+    /**
+     * Show search hits in the current sort mode.
+     */
+    private void showHits(int[] hits) {
+        shownIds = displayOrder(hits);
+        waystoneList.setReorderEnabled(!sortByDistance);
+        waystoneList.updateWaystones(shownIds);
+    }
+    
+    private int[] displayOrder(int[] hits) {
+        if (!sortByDistance || this.minecraft == null || this.minecraft.player == null) {
+            return hits;
+        }
+        // Both indexes cover the same directory, so search hits are valid spatial ids
+        var player = this.minecraft.player;
+        return spatialIndex.sortByDistance(hits, player.level().dimension(), player.getX(), player.getZ());
+    }
+    
+    private Component sortLabel() {
+        return Component.literal(sortByDistance ? "Sort: Nearest" : "Sort: Custom");
     }
     
     private void onWaystoneSelected(WaystoneData waystone) {
@@ -243,6 +350,10 @@ public class EnhancedWaystoneSelectionScreen extends Screen {
         
         // Trigger teleport via original waystone object using reflection
         Object waystoneObject = waystone.getWaystoneObject();
+        if (waystoneObject == null && waystone.getId() != null) {
+            // Synced entry: find the matching object in the original screen's list
+            waystoneObject = WaystoneExtractor.findOriginal(originalScreen, waystone);
+        }
         if (waystoneObject != null) {
             try {
                 // Try to find and invoke the teleport method on the original waystone
@@ -273,6 +384,16 @@ public class EnhancedWaystoneSelectionScreen extends Screen {
         }
     }
     
+    @Override
+    public void tick() {
+        super.tick();
+        pollPending();
+        // Drives cursor blink and flushes the debounced search once per client tick
+        if (this.searchField != null) {
+            this.searchField.tick();
+        }
+    }
+    
     @Override
     public void render(GuiGraphics graphics, int mouseX, int mouseY, float partialTick) {
         // Render background
@@ -290,7 +411,7 @@ public class EnhancedWaystoneSelectionScreen extends Screen {
         // Show waystone count and instructions
         graphics.drawCenteredString(
             this.font,
-            Component.literal("Waystones: " + filteredWaystones.size() + " / " + allWaystones.size()),
+            Component.literal(pending != null ? "Loading waystones..." : "Waystones: " + shownIds.length + " / " + directory.size()),
             this.width / 2,
             this.height - 45,
             0xAAAAAA
@@ -299,7 +420,7 @@ public class EnhancedWaystoneSelectionScreen extends Screen {
         // Show drag-and-drop hint
         graphics.drawCenteredString(
             this.font,
-            Component.literal("§7SHIFT+Drag to reorder • CTRL+Hover for info"),
+            Component.literal(sortByDistance ? "§7CTRL+Hover for info" : "§7SHIFT+Drag to reorder • CTRL+Hover for info"),
             this.width / 2,
             this.height - 55,
             0x888888
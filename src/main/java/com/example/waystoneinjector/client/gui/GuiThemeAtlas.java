@@ -1,9 +1,10 @@
 package com.example.waystoneinjector.client.gui;
 
-import net.minecraft.client.Minecraft;
 import net.minecraft.resources.ResourceLocation;
 
-import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Atlas-backed texture lookup for the themed Waystones GUIs.
@@ -14,6 +15,10 @@ import javax.annotation.Nonnull;
  * - Button: (0,292) size 64x32
  *
  * All lookups fall back to legacy per-element PNGs when an atlas (or region) is not available.
+ *
+ * Atlas textures come from {@link TextureResolver}. Resolved sprites are cached per type, so rendering does no
+ * resource-manager lookups or allocation after the first frame; TextureResolver clears them whenever resources
+ * reload (a resource pack may add or remove atlases).
  */
 public final class GuiThemeAtlas {
 
@@ -39,46 +44,46 @@ public final class GuiThemeAtlas {
 
     public record Sprite(ResourceLocation texture, int textureW, int textureH, int u, int v, int w, int h) {}
 
+    private static final Map<String, Sprite> BACKGROUNDS = new ConcurrentHashMap<>();
+    private static final Map<String, Sprite> OVERLAYS = new ConcurrentHashMap<>();
+    private static final Map<String, Sprite> BUTTONS = new ConcurrentHashMap<>();
+    private static final AtomicInteger generation = new AtomicInteger();
 
     public static Sprite background(String type) {
-        String resolvedType = normalizeType(type);
-
-        ResourceLocation atlas = atlasTextureOrRegular(resolvedType);
-        return new Sprite(atlas, ATLAS_W, ATLAS_H, BG_U, BG_V, BG_W, BG_H);
+        return BACKGROUNDS.computeIfAbsent(TextureResolver.normalizeType(type), GuiThemeAtlas::resolveBackground);
     }
 
     public static Sprite overlay(String type) {
-        String resolvedType = normalizeType(type);
-
-        ResourceLocation atlas = atlasTextureOrRegular(resolvedType);
-        return new Sprite(atlas, ATLAS_W, ATLAS_H, OVERLAY_U, OVERLAY_V, OVERLAY_W, OVERLAY_H);
+        return OVERLAYS.computeIfAbsent(TextureResolver.normalizeType(type), GuiThemeAtlas::resolveOverlay);
     }
 
     public static Sprite button(String type) {
-        String resolvedType = normalizeType(type);
+        return BUTTONS.computeIfAbsent(TextureResolver.normalizeType(type), GuiThemeAtlas::resolveButton);
+    }
+
+    /**
+     * Changes every time the caches are cleared, so callers holding on to sprites know to fetch them again.
+     */
+    public static int generation() {
+        return generation.get();
+    }
 
-        ResourceLocation atlas = atlasTextureOrRegular(resolvedType);
-        return new Sprite(atlas, ATLAS_W, ATLAS_H, BUTTON_U, BUTTON_V, BUTTON_W, BUTTON_H);
+    public static void invalidate() {
+        BACKGROUNDS.clear();
+        OVERLAYS.clear();
+        BUTTONS.clear();
+        generation.incrementAndGet();
     }
 
-    private static String normalizeType(String type) {
-        if (type == null || type.isBlank()) return "regular";
-        return type;
+    private static Sprite resolveBackground(String type) {
+        return new Sprite(TextureResolver.atlas(type), ATLAS_W, ATLAS_H, BG_U, BG_V, BG_W, BG_H);
     }
 
-    private static ResourceLocation atlasTextureOrRegular(String type) {
-        ResourceLocation candidate = new ResourceLocation("waystoneinjector", "textures/gui/atlases/menu_" + type + ".png");
-        if (resourceExists(candidate)) {
-            return candidate;
-        }
-        return new ResourceLocation("waystoneinjector", "textures/gui/atlases/menu_regular.png");
+    private static Sprite resolveOverlay(String type) {
+        return new Sprite(TextureResolver.atlas(type), ATLAS_W, ATLAS_H, OVERLAY_U, OVERLAY_V, OVERLAY_W, OVERLAY_H);
     }
 
-    private static boolean resourceExists(@Nonnull ResourceLocation location) {
-        try {
-            return Minecraft.getInstance().getResourceManager().getResource(location).isPresent();
-        } catch (Exception ignored) {
-            return false;
-        }
+    private static Sprite resolveButton(String type) {
+        return new Sprite(TextureResolver.atlas(type), ATLAS_W, ATLAS_H, BUTTON_U, BUTTON_V, BUTTON_W, BUTTON_H);
     }
 }
@@ -0,0 +1,103 @@
+package com.example.waystoneinjector.client.gui;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Per-frame compression for vertical animation sheets, used by {@link PortalFrameStreamer}.
+ *
+ * Each frame is deflated on its own, so showing a frame only inflates that frame (frameW * frameH * 4 bytes)
+ * instead of decoding the whole sheet. Pixels are stored as the ints {@code NativeImage.getPixelRGBA} returns,
+ * so a decoded frame can be written back with {@code setPixelRGBA} without any channel swizzling.
+ *
+ * A codec instance owns its inflater and scratch buffer and is not thread-safe; {@link #encode} is static and
+ * can run on any thread. Call {@link #end} when done with an instance to free the inflater's native memory.
+ */
+final class PortalFrameCodec {
+
+    private final Inflater inflater = new Inflater();
+    private final byte[] raw;
+    private final IntBuffer rawInts;
+
+    PortalFrameCodec(int frameW, int frameH) {
+        this.raw = new byte[frameW * frameH * Integer.BYTES];
+        this.rawInts = ByteBuffer.wrap(raw).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+    /**
+     * Free the inflater. The codec can't be used afterwards.
+     */
+    void end() {
+        inflater.end();
+    }
+
+    /**
+     * Split a vertical sheet (frames stacked top to bottom, sheet width == frame width) into compressed frames.
+     * @param sheet Sheet pixels, row-major
+     */
+    static byte[][] encode(int[] sheet, int frameW, int frameH) {
+        int framePixels = frameW * frameH;
+        int frames = sheet.length / framePixels;
+        byte[][] encoded = new byte[frames][];
+
+        byte[] raw = new byte[framePixels * Integer.BYTES];
+        IntBuffer rawInts = ByteBuffer.wrap(raw).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        byte[] out = new byte[raw.length + 64];
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            for (int frame = 0; frame < frames; frame++) {
+                rawInts.clear();
+                rawInts.put(sheet, frame * framePixels, framePixels);
+
+                deflater.reset();
+                deflater.setInput(raw);
+                deflater.finish();
+                int length = 0;
+                while (!deflater.finished()) {
+                    if (length == out.length) {
+                        out = Arrays.copyOf(out, out.length * 2);
+                    }
+                    length += deflater.deflate(out, length, out.length - length);
+                }
+                encoded[frame] = Arrays.copyOf(out, length);
+            }
+        } finally {
+            deflater.end();
+        }
+        return encoded;
+    }
+
+    /**
+     * Inflate one frame into the first frameW * frameH entries of {@code pixels}.
+     */
+    void decode(byte[] frame, int[] pixels) throws DataFormatException {
+        inflater.reset();
+        inflater.setInput(frame);
+        int length = 0;
+        while (length < raw.length && !inflater.finished()) {
+            int read = inflater.inflate(raw, length, raw.length - length);
+            if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                break;
+            }
+            length += read;
+        }
+        if (length != raw.length) {
+            throw new DataFormatException("Truncated frame: " + length + " of " + raw.length + " bytes");
+        }
+        rawInts.clear();
+        rawInts.get(pixels, 0, raw.length / Integer.BYTES);
+    }
+
+    static long compressedSize(byte[][] frames) {
+        long total = 0;
+        for (byte[] frame : frames) {
+            total += frame.length;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.waystoneinjector.client.gui;
+
+import com.example.waystoneinjector.client.BackgroundIo;
+import com.mojang.blaze3d.platform.NativeImage;
+import com.mojang.logging.LogUtils;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.texture.DynamicTexture;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.Resource;
+import org.slf4j.Logger;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Optional low-VRAM path for the 256x4096 waystone portal sheets ({@code rendering.streamPortalFrames}).
+ *
+ * Instead of binding the whole sheet (256 * 4096 * 4 bytes = 4 MB of VRAM per portal type), each sheet is
+ * decoded once on the I/O thread and kept in memory as individually deflated frames (see {@link PortalFrameCodec}).
+ * Only the frame currently on screen is inflated and uploaded into a single reusable 256x256
+ * {@link DynamicTexture} (256 KB of VRAM, shared by every portal type). The upload happens when the animation
+ * advances, i.e. at most once per {@link PortalSheets#FRAME_TIME_MS}, not every render.
+ *
+ * Until a sheet has been decoded (or if it can't be), {@link #frame} returns null and the caller draws the
+ * sheet directly. Sheets bound before streaming was enabled stay registered (and resident) with the texture
+ * manager, since that fallback can still bind them; streaming only avoids loading the ones not yet used. Everything except {@link #setEnabled} must be called on the render thread.
+ */
+public final class PortalFrameStreamer {
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    static final int FRAME_SIZE = 256;
+
+    private static final ResourceLocation STREAM_TEXTURE = new ResourceLocation("waystoneinjector", "dynamic/portal_stream");
+
+    private static volatile boolean enabled = false;
+
+    // Decoded sheets; a sheet is present (and not ready) while it is being decoded
+    private static final Map<ResourceLocation, Sheet> SHEETS = new ConcurrentHashMap<>();
+
+    // Render thread only
+    private static DynamicTexture texture;
+    private static PortalFrameCodec codec;
+    private static int[] framePixels;
+    private static Sheet uploadedSheet;
+    private static int uploadedFrame = -1;
+
+    private PortalFrameStreamer() {}
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Called on config load/reload (any thread). Resources are released by the next {@link #releaseIfHeld}.
+     */
+    public static void setEnabled(boolean value) {
+        if (enabled != value) {
+            enabled = value;
+            LOGGER.info("Portal frame streaming {}", value ? "enabled" : "disabled");
+        }
+    }
+
+    /**
+     * Texture holding frame {@code tick % frameCount} of {@code sheet}, uploading it first if needed.
+     * @param tick Animation step since the epoch (wall clock / frame time)
+     * @return The streaming texture (a {@value #FRAME_SIZE}x{@value #FRAME_SIZE} image), or null if the sheet
+     *         isn't decoded yet or couldn't be
+     */
+    public static ResourceLocation frame(ResourceLocation sheet, long tick) {
+        Sheet decoded = SHEETS.get(sheet);
+        if (decoded == null) {
+            decoded = new Sheet(null);
+            if (SHEETS.putIfAbsent(sheet, decoded) == null) {
+                Sheet loading = decoded;
+                BackgroundIo.execute(() -> load(sheet, loading));
+            }
+            return null;
+        }
+        byte[][] frames = decoded.frames;
+        if (frames == null) return null;
+
+        int frame = (int) (tick % frames.length);
+        if (decoded != uploadedSheet || frame != uploadedFrame) {
+            if (!upload(frames[frame])) {
+                SHEETS.put(sheet, Sheet.FAILED);
+                return null;
+            }
+            uploadedSheet = decoded;
+            uploadedFrame = frame;
+        }
+        return STREAM_TEXTURE;
+    }
+
+    /**
+     * Free the streaming texture and decoded sheets once streaming has been turned off.
+     */
+    public static void releaseIfHeld() {
+        if (texture == null && SHEETS.isEmpty()) return;
+        if (texture != null) {
+            // Frees the GL texture and pixels; it stays registered until upload() registers a fresh one
+            // (which closes it again, a no-op), so nothing is left pointing at a released id
+            texture.close();
+            texture = null;
+        }
+        if (codec != null) {
+            codec.end();
+            codec = null;
+        }
+        framePixels = null;
+        invalidate();
+    }
+
+    /**
+     * Drop the decoded sheets (resource reload); they are decoded again on next use.
+     */
+    static void invalidate() {
+        SHEETS.clear();
+        uploadedSheet = null;
+        uploadedFrame = -1;
+    }
+
+    private static boolean upload(byte[] frame) {
+        if (texture == null) {
+            texture = new DynamicTexture(FRAME_SIZE, FRAME_SIZE, false);
+            Minecraft.getInstance().getTextureManager().register(STREAM_TEXTURE, texture);
+            codec = new PortalFrameCodec(FRAME_SIZE, FRAME_SIZE);
+            framePixels = new int[FRAME_SIZE * FRAME_SIZE];
+        }
+        try {
+            codec.decode(frame, framePixels);
+        } catch (Exception e) {
+            LOGGER.warn("Failed to decode streamed portal frame", e);
+            return false;
+        }
+
+        NativeImage pixels = texture.getPixels();
+        if (pixels == null) return false;
+        for (int y = 0, i = 0; y < FRAME_SIZE; y++) {
+            for (int x = 0; x < FRAME_SIZE; x++, i++) {
+                pixels.setPixelRGBA(x, y, framePixels[i]);
+            }
+        }
+        texture.upload();
+        return true;
+    }
+
+    /**
+     * I/O thread: decode the sheet and compress its frames. Dropped if the caches were invalidated meanwhile.
+     */
+    private static void load(ResourceLocation sheet, Sheet loading) {
+        Sheet result = Sheet.FAILED;
+        try {
+            Optional<Resource> resource = Minecraft.getInstance().getResourceManager().getResource(sheet);
+            if (resource.isPresent()) {
+                int[] pixels;
+                int width;
+                int height;
+                try (InputStream in = resource.get().open(); NativeImage image = NativeImage.read(in)) {
+                    width = image.getWidth();
+                    height = image.getHeight();
+                    pixels = new int[width * height];
+                    for (int y = 0, i = 0; y < height; y++) {
+                        for (int x = 0; x < width; x++, i++) {
+                            pixels[i] = image.getPixelRGBA(x, y);
+                        }
+                    }
+                }
+                if (width == FRAME_SIZE && height >= FRAME_SIZE && height % FRAME_SIZE == 0) {
+                    byte[][] frames = PortalFrameCodec.encode(pixels, FRAME_SIZE, FRAME_SIZE);
+                    result = new Sheet(frames);
+                    LOGGER.debug("Streaming {}: {} frames, {} KB compressed (was {} KB as a texture)",
+                        sheet, frames.length, PortalFrameCodec.compressedSize(frames) / 1024, pixels.length * 4L / 1024);
+                } else {
+                    LOGGER.warn("Can't stream {}: expected a {}px wide sheet of {}px frames, got {}x{}",
+                        sheet, FRAME_SIZE, FRAME_SIZE, width, height);
+                }
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Failed to decode portal sheet {} for streaming", sheet, e);
+        }
+        SHEETS.replace(sheet, loading, result);
+    }
+
+    private static final class Sheet {
+        static final Sheet FAILED = new Sheet(null);
+
+        final byte[][] frames;
+
+        Sheet(byte[][] frames) {
+            this.frames = frames;
+        }
+    }
+}
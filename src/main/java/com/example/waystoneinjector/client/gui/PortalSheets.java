@@ -0,0 +1,93 @@
+package com.example.waystoneinjector.client.gui;
+
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.resources.ResourceLocation;
+
+/**
+ * Draws the animated backgrounds behind the themed GUIs. Every animation is a vertical sprite sheet
+ * (frames stacked top to bottom) advanced on the wall clock, so each one is a single texture and a single bind.
+ *
+ * Sheets:
+ * - Waystone portals: 256x256 frames, 256x4096 sheet (16 frames); optionally streamed one frame at a time
+ *   through {@link PortalFrameStreamer} to save VRAM
+ * - Sharestone portals: 16x16 frames, 16x512 sheet (32 frames), scaled up to 256x256
+ * - Mystical overlay: 16x80 frames, 16x2080 sheet (26 frames), scaled up to 256x256;
+ *   stitched from textures/gui/mystical/mystic_*.png at build time (see the stitchMysticalSheet task)
+ */
+public final class PortalSheets {
+
+    private PortalSheets() {}
+
+    public static final int SIZE = 256;
+
+    public static final long FRAME_TIME_MS = 100L; // matches frametime=2 (approx) at 20 TPS
+
+    private static final int PORTAL_FRAME_W = 256;
+    private static final int PORTAL_FRAME_H = 256;
+    private static final int PORTAL_SHEET_W = 256;
+    private static final int PORTAL_SHEET_H = 4096;
+
+    private static final int SHARESTONE_FRAME_W = 16;
+    private static final int SHARESTONE_FRAME_H = 16;
+    private static final int SHARESTONE_SHEET_W = 16;
+    private static final int SHARESTONE_SHEET_H = 512;
+
+    public static final int MYSTICAL_FRAMES = 26;
+    private static final int MYSTICAL_FRAME_W = 16;
+    private static final int MYSTICAL_FRAME_H = 80;
+    private static final int MYSTICAL_SHEET_W = MYSTICAL_FRAME_W;
+    private static final int MYSTICAL_SHEET_H = MYSTICAL_FRAME_H * MYSTICAL_FRAMES;
+
+    /**
+     * Animated waystone portal background (a {@link TextureResolver#portalBackground} sheet).
+     */
+    public static void blitPortal(GuiGraphics graphics, ResourceLocation sheet, int x, int y) {
+        if (PortalFrameStreamer.isEnabled()) {
+            ResourceLocation frame = PortalFrameStreamer.frame(sheet, animationTick());
+            if (frame != null) {
+                int size = PortalFrameStreamer.FRAME_SIZE;
+                graphics.blit(frame, x, y, SIZE, SIZE, 0.0F, 0.0F, size, size, size, size);
+                return;
+            }
+        } else {
+            PortalFrameStreamer.releaseIfHeld();
+        }
+        blitAnimated(graphics, sheet, x, y, PORTAL_FRAME_W, PORTAL_FRAME_H, PORTAL_SHEET_W, PORTAL_SHEET_H);
+    }
+
+    /**
+     * Animated sharestone portal background (a {@link TextureResolver#sharestonePortal} sheet).
+     */
+    public static void blitSharestonePortal(GuiGraphics graphics, ResourceLocation sheet, int x, int y) {
+        blitAnimated(graphics, sheet, x, y, SHARESTONE_FRAME_W, SHARESTONE_FRAME_H, SHARESTONE_SHEET_W, SHARESTONE_SHEET_H);
+    }
+
+    /**
+     * Mystical overlay drawn over the portal for extra movement.
+     */
+    public static void blitMystical(GuiGraphics graphics, int x, int y) {
+        blitAnimated(graphics, TextureResolver.MYSTICAL_SHEET, x, y, MYSTICAL_FRAME_W, MYSTICAL_FRAME_H, MYSTICAL_SHEET_W, MYSTICAL_SHEET_H);
+    }
+
+    /**
+     * Draw the current frame of a vertical sheet, scaled to {@link #SIZE}x{@link #SIZE}.
+     */
+    private static void blitAnimated(GuiGraphics graphics, ResourceLocation sheet, int x, int y,
+                                     int frameW, int frameH, int sheetW, int sheetH) {
+        int frames = sheetH / frameH;
+        int frame = (int) (animationTick() % frames);
+        int v = frame * frameH;
+        graphics.blit(sheet, x, y,
+            SIZE, SIZE,
+            0.0F, (float) v,
+            frameW, frameH,
+            sheetW, sheetH);
+    }
+
+    /**
+     * Animation step since the epoch; every sheet shows frame {@code animationTick() % frameCount}.
+     */
+    static long animationTick() {
+        return System.currentTimeMillis() / FRAME_TIME_MS;
+    }
+}
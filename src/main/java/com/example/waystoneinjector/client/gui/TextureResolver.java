@@ -0,0 +1,149 @@
+package com.example.waystoneinjector.client.gui;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.PreparableReloadListener;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.util.Unit;
+import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraftforge.client.event.RegisterClientReloadListenersEvent;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single place that resolves the textures drawn behind the themed GUIs: animated portal backgrounds per
+ * waystone type, sharestone portals per color, the mystical overlay sheet and theme atlases per type.
+ *
+ * A type/color-specific texture is used when the current resource packs provide it, otherwise the shared
+ * fallback. Results are cached in concurrent maps, so a render-time lookup is a map hit with no resource-manager
+ * query or allocation. Everything is dropped after a resource reload (F3+T, resource pack changes), together
+ * with the {@link GuiThemeAtlas} sprites built on top of it.
+ */
+public final class TextureResolver {
+
+    private static final String NAMESPACE = "waystoneinjector";
+
+    public static final ResourceLocation PORTAL_ANIMATION = texture("textures/gui/portal_animation.png");
+    private static final ResourceLocation PORTSTONE_PORTAL = texture("textures/gui/portstone_portal.png");
+    private static final ResourceLocation DEFAULT_SHARESTONE_PORTAL = texture("textures/gui/sharestone_portals/purple.png");
+    private static final ResourceLocation DEFAULT_ATLAS = texture("textures/gui/atlases/menu_regular.png");
+
+    // All mystical overlay frames in one vertical sheet, generated at build time (see PortalSheets)
+    public static final ResourceLocation MYSTICAL_SHEET = texture("textures/gui/mystical_sheet.png");
+
+    // Sharestones come in the 16 dye colors; anything else uses the purple default
+    private static final Set<String> SHARESTONE_COLORS = Set.of(
+        "black", "blue", "brown", "cyan", "gray", "green", "light_blue", "light_gray",
+        "lime", "magenta", "orange", "pink", "purple", "red", "white", "yellow"
+    );
+
+    private static final Map<String, ResourceLocation> PORTAL_BACKGROUNDS = new ConcurrentHashMap<>();
+    private static final Map<String, ResourceLocation> SHARESTONE_PORTALS = new ConcurrentHashMap<>();
+    private static final Map<String, ResourceLocation> ATLASES = new ConcurrentHashMap<>();
+    private static final AtomicInteger generation = new AtomicInteger();
+
+    private TextureResolver() {}
+
+    /**
+     * Animated portal sheet shown behind a waystone menu of the given type.
+     */
+    public static ResourceLocation portalBackground(String type) {
+        return PORTAL_BACKGROUNDS.computeIfAbsent(normalizeType(type), TextureResolver::resolvePortalBackground);
+    }
+
+    /**
+     * Animated portal sheet shown behind a sharestone menu of the given dye color.
+     */
+    public static ResourceLocation sharestonePortal(String color) {
+        if (color == null) return DEFAULT_SHARESTONE_PORTAL;
+        return SHARESTONE_PORTALS.computeIfAbsent(color, TextureResolver::resolveSharestonePortal);
+    }
+
+    /**
+     * Theme atlas for the given waystone type (see {@link GuiThemeAtlas} for the layout).
+     */
+    public static ResourceLocation atlas(String type) {
+        return ATLASES.computeIfAbsent(normalizeType(type), TextureResolver::resolveAtlas);
+    }
+
+    /**
+     * Changes every time the caches are cleared, so callers holding on to textures know to fetch them again.
+     */
+    public static int generation() {
+        return generation.get();
+    }
+
+    public static void invalidate() {
+        PORTAL_BACKGROUNDS.clear();
+        SHARESTONE_PORTALS.clear();
+        ATLASES.clear();
+        GuiThemeAtlas.invalidate();
+        PortalFrameStreamer.invalidate();
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Mod bus listener: clear the caches after every resource reload.
+     */
+    public static void onRegisterReloadListeners(RegisterClientReloadListenersEvent event) {
+        event.registerReloadListener(new ReloadListener());
+    }
+
+    static String normalizeType(String type) {
+        if (type == null || type.isBlank()) return "regular";
+        return type;
+    }
+
+    private static ResourceLocation resolvePortalBackground(String type) {
+        if (type.equals("portstone")) {
+            return PORTSTONE_PORTAL;
+        }
+        return existingOr(texture("textures/gui/waystone_portals/portal_animation_" + type + ".png"), PORTAL_ANIMATION);
+    }
+
+    private static ResourceLocation resolveSharestonePortal(String color) {
+        if (!SHARESTONE_COLORS.contains(color)) {
+            return DEFAULT_SHARESTONE_PORTAL;
+        }
+        return existingOr(texture("textures/gui/sharestone_portals/" + color + ".png"), DEFAULT_SHARESTONE_PORTAL);
+    }
+
+    private static ResourceLocation resolveAtlas(String type) {
+        return existingOr(texture("textures/gui/atlases/menu_" + type + ".png"), DEFAULT_ATLAS);
+    }
+
+    private static ResourceLocation existingOr(@Nonnull ResourceLocation candidate, ResourceLocation fallback) {
+        try {
+            return Minecraft.getInstance().getResourceManager().getResource(candidate).isPresent() ? candidate : fallback;
+        } catch (Exception ignored) {
+            return fallback;
+        }
+    }
+
+    private static ResourceLocation texture(String path) {
+        return new ResourceLocation(NAMESPACE, path);
+    }
+
+    /**
+     * Clears the caches on the game thread once the reload's resources are in place. Nothing to prepare.
+     */
+    private static final class ReloadListener implements PreparableReloadListener {
+        @Override
+        public @Nonnull CompletableFuture<Void> reload(@Nonnull PreparationBarrier barrier, @Nonnull ResourceManager resourceManager,
+                                                       @Nonnull ProfilerFiller preparationsProfiler, @Nonnull ProfilerFiller reloadProfiler,
+                                                       @Nonnull Executor backgroundExecutor, @Nonnull Executor gameExecutor) {
+            return barrier.wait(Unit.INSTANCE).thenRunAsync(TextureResolver::invalidate, gameExecutor);
+        }
+
+        @Override
+        public @Nonnull String getName() {
+            return "waystoneinjector:texture_resolver";
+        }
+    }
+}
@@ -3,9 +3,12 @@ package com.example.waystoneinjector.client.gui;
 import net.minecraft.resources.ResourceKey;
 import net.minecraft.world.level.Level;
 
+import java.util.UUID;
+
 /**
  * Data class representing a single waystone entry
- * This is our internal representation - extracted from Waystones mod's screen
+ * This is our internal representation - extracted from Waystones mod's screen,
+ * or built from the directory the server mod syncs (then without the original object until it is selected)
  */
 public class WaystoneData {
     private final String name;
@@ -15,8 +18,14 @@ public class WaystoneData {
     private final ResourceKey<Level> dimension;
     private final boolean isGlobal;
     private final Object waystoneObject; // Store original waystone object for teleportation
+    private final UUID id; // Waystones' id when known, null otherwise
     
     public WaystoneData(String name, int x, int y, int z, ResourceKey<Level> dimension, boolean isGlobal, Object waystoneObject) {
+        this(null, name, x, y, z, dimension, isGlobal, waystoneObject);
+    }
+    
+    public WaystoneData(UUID id, String name, int x, int y, int z, ResourceKey<Level> dimension, boolean isGlobal, Object waystoneObject) {
+        this.id = id;
         this.name = name;
         this.x = x;
         this.y = y;
@@ -26,6 +35,10 @@ public class WaystoneData {
         this.waystoneObject = waystoneObject;
     }
     
+    public UUID getId() {
+        return id;
+    }
+    
     public String getName() {
         return name;
     }
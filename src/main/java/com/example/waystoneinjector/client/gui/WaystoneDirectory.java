@@ -0,0 +1,225 @@
+package com.example.waystoneinjector.client.gui;
+
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Column store for the waystones shown by the enhanced menu: one primitive array per field instead of one
+ * {@link WaystoneData} object per waystone.
+ *
+ * Entries are addressed by their position ("id"). Coordinates are {@code int[]} columns, dimensions are small ids
+ * into a per-directory table, and names live in one packed {@code char[]} (with a second one holding the lowercase
+ * forms used by search). Filters and sort orders are {@code int[]} views of ids, so searching, sorting and
+ * rendering iterate primitives; a {@link WaystoneData} is only materialized for the waystone being selected
+ * or inspected.
+ *
+ * The directory is immutable: build it once for a list and rebuild if the list changes.
+ */
+public final class WaystoneDirectory {
+
+    private static final WaystoneDirectory EMPTY = new WaystoneDirectory(List.of());
+
+    private final int size;
+    private final int[] xs;
+    private final int[] ys;
+    private final int[] zs;
+    private final boolean[] global;
+    private final int[] dimensionIds;
+
+    // Packed names: entry i spans [nameStart[i], nameStart[i + 1]) (lowercase forms may differ in length)
+    private final char[] names;
+    private final int[] nameStart;
+    private final char[] lowerNames;
+    private final int[] lowerNameStart;
+
+    // Per dimension id
+    private final List<ResourceKey<Level>> dimensions = new ArrayList<>();
+    private final List<String> dimensionNames = new ArrayList<>();
+    private final List<String> lowerDimensionNames = new ArrayList<>();
+
+    // Needed for teleporting through the original screen; null for synced entries
+    private final Object[] originals;
+    private final UUID[] uuids;
+
+    private WaystoneDirectory(List<WaystoneData> waystones) {
+        this.size = waystones.size();
+        this.xs = new int[size];
+        this.ys = new int[size];
+        this.zs = new int[size];
+        this.global = new boolean[size];
+        this.dimensionIds = new int[size];
+        this.nameStart = new int[size + 1];
+        this.lowerNameStart = new int[size + 1];
+        this.originals = new Object[size];
+        this.uuids = new UUID[size];
+
+        StringBuilder packed = new StringBuilder(size * 16);
+        StringBuilder packedLower = new StringBuilder(size * 16);
+        Map<ResourceKey<Level>, Integer> dimensionIndex = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            WaystoneData waystone = waystones.get(i);
+            xs[i] = waystone.getX();
+            ys[i] = waystone.getY();
+            zs[i] = waystone.getZ();
+            global[i] = waystone.isGlobal();
+            originals[i] = waystone.getWaystoneObject();
+            uuids[i] = waystone.getId();
+
+            Integer dimension = dimensionIndex.get(waystone.getDimension());
+            if (dimension == null) {
+                dimension = dimensions.size();
+                dimensionIndex.put(waystone.getDimension(), dimension);
+                dimensions.add(waystone.getDimension());
+                dimensionNames.add(waystone.getDimensionName());
+                lowerDimensionNames.add(WaystoneSearchIndex.normalize(waystone.getDimensionName()));
+            }
+            dimensionIds[i] = dimension;
+
+            String name = waystone.getName();
+            nameStart[i] = packed.length();
+            packed.append(name);
+            lowerNameStart[i] = packedLower.length();
+            packedLower.append(name.toLowerCase(Locale.ROOT));
+        }
+        nameStart[size] = packed.length();
+        lowerNameStart[size] = packedLower.length();
+
+        this.names = new char[packed.length()];
+        packed.getChars(0, packed.length(), names, 0);
+        this.lowerNames = new char[packedLower.length()];
+        packedLower.getChars(0, packedLower.length(), lowerNames, 0);
+    }
+
+    /**
+     * Build a directory from waystones in display order. Ids are positions in this list.
+     */
+    public static WaystoneDirectory of(List<WaystoneData> waystones) {
+        return waystones.isEmpty() ? EMPTY : new WaystoneDirectory(waystones);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Every id in directory order (a fresh array the caller may modify).
+     */
+    public int[] allIds() {
+        int[] ids = new int[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = i;
+        }
+        return ids;
+    }
+
+    public int x(int id) {
+        return xs[id];
+    }
+
+    public int y(int id) {
+        return ys[id];
+    }
+
+    public int z(int id) {
+        return zs[id];
+    }
+
+    public boolean isGlobal(int id) {
+        return global[id];
+    }
+
+    /**
+     * Small dimension id of an entry, an index into this directory's dimension table.
+     */
+    public int dimensionId(int id) {
+        return dimensionIds[id];
+    }
+
+    /**
+     * Id of {@code dimension} in this directory's table, or -1 if no entry is in it.
+     */
+    public int dimensionIdOf(ResourceKey<Level> dimension) {
+        return dimensions.indexOf(dimension);
+    }
+
+    public int dimensionCount() {
+        return dimensions.size();
+    }
+
+    public ResourceKey<Level> dimension(int id) {
+        return dimensions.get(dimensionIds[id]);
+    }
+
+    public String dimensionName(int id) {
+        return dimensionNames.get(dimensionIds[id]);
+    }
+
+    /**
+     * Lowercase display name of a dimension id (as used by search).
+     */
+    String lowerDimensionName(int dimensionId) {
+        return lowerDimensionNames.get(dimensionId);
+    }
+
+    /**
+     * Name of an entry. Builds a String; cache it when it is needed every frame.
+     */
+    public String name(int id) {
+        return new String(names, nameStart[id], nameStart[id + 1] - nameStart[id]);
+    }
+
+    String lowerName(int id) {
+        return new String(lowerNames, lowerNameStart[id], lowerNameStart[id + 1] - lowerNameStart[id]);
+    }
+
+    /**
+     * Whether the entry's lowercase name or dimension name contains {@code lowerQuery}, without building Strings.
+     */
+    boolean matches(int id, String lowerQuery) {
+        return regionContains(lowerNames, lowerNameStart[id], lowerNameStart[id + 1], lowerQuery)
+            || lowerDimensionNames.get(dimensionIds[id]).contains(lowerQuery);
+    }
+
+    public Object original(int id) {
+        return originals[id];
+    }
+
+    public UUID uuid(int id) {
+        return uuids[id];
+    }
+
+    /**
+     * The entry as a standalone {@link WaystoneData} (for selection and tooltips).
+     */
+    public WaystoneData get(int id) {
+        return new WaystoneData(uuids[id], name(id), xs[id], ys[id], zs[id], dimension(id), global[id], originals[id]);
+    }
+
+    private static boolean regionContains(char[] chars, int from, int to, String query) {
+        int length = query.length();
+        if (length == 0) {
+            return true;
+        }
+        char first = query.charAt(0);
+        for (int start = from, last = to - length; start <= last; start++) {
+            if (chars[start] != first) {
+                continue;
+            }
+            int i = 1;
+            while (i < length && chars[start + i] == query.charAt(i)) {
+                i++;
+            }
+            if (i == length) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,130 +1,171 @@
 package com.example.waystoneinjector.client.gui;
 
+import com.example.waystoneinjector.client.BackgroundIo;
+import com.example.waystoneinjector.client.DebugLog;
+import com.mojang.logging.LogUtils;
 import net.minecraft.client.gui.screens.Screen;
+import net.minecraft.core.Vec3i;
 import net.minecraft.resources.ResourceKey;
 import net.minecraft.world.level.Level;
+import org.slf4j.Logger;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Utility class to extract waystone data from the original WaystoneSelectionScreen
  * Uses reflection to access private fields since Waystones doesn't expose a public API
+ *
+ * Extraction is split in two: capturing the raw collection (client thread, reference copy only) and converting
+ * it into {@link WaystoneData} ({@link #extractWaystonesAsync} does that part in the background).
  * 
  * Phase 2: This will be enhanced to actually extract waystone data
  * For now, returns dummy data for testing
  */
 public class WaystoneExtractor {
     
+    private static final Logger LOGGER = LogUtils.getLogger();
+    
     /**
-     * Extract waystone list from the original Waystones screen
-     * @param originalScreen The WaystoneSelectionScreen instance
-     * @return List of waystone data
+     * Extract waystones without blocking the frame: the raw collection is captured on the calling (client) thread,
+     * which only copies references, and converted into {@link WaystoneData} on the {@link BackgroundIo} thread.
+     * The Waystones objects are plain data holders, so reading them there is safe once the collection is copied.
+     * @return Future completing with an immutable list (never exceptionally; falls back to dummy data)
      */
-    public static List<WaystoneData> extractWaystones(Screen originalScreen) {
-        List<WaystoneData> waystones = new ArrayList<>();
-        
+    public static CompletableFuture<List<WaystoneData>> extractWaystonesAsync(Screen originalScreen) {
+        List<Object> raw;
         try {
-            System.out.println("[WaystoneInjector] ========== EXTRACTING WAYSTONES ==========");
-            System.out.println("[WaystoneInjector] Screen class: " + originalScreen.getClass().getName());
-            
-            // Try reflection-based extraction first
-            waystones = extractViaReflection(originalScreen);
-            
-            // If extraction failed or returned empty, use dummy data
-            if (waystones.isEmpty()) {
-                System.out.println("[WaystoneInjector] WARNING: Extraction returned empty list, using dummy data");
-                waystones = getDummyWaystones();
-            }
-            
-            System.out.println("[WaystoneInjector] Final waystone count: " + waystones.size());
-            System.out.println("[WaystoneInjector] ==========================================");
-            
+            raw = captureRaw(originalScreen);
         } catch (Exception e) {
-            System.err.println("[WaystoneInjector] EXCEPTION during extraction: " + e.getMessage());
-            e.printStackTrace();
-            
-            // Fallback to dummy data
+            LOGGER.error("Exception while capturing waystones", e);
+            raw = List.of();
+        }
+        
+        List<Object> captured = raw;
+        CompletableFuture<List<WaystoneData>> result = new CompletableFuture<>();
+        BackgroundIo.execute(() -> {
+            try {
+                result.complete(List.copyOf(convert(captured)));
+            } catch (Throwable t) {
+                LOGGER.error("Exception during waystone extraction", t);
+                result.complete(List.copyOf(getDummyWaystones()));
+            }
+        });
+        return result;
+    }
+    
+    /**
+     * The Waystones object behind an entry from the synced directory, looked up in the original screen's list
+     * (by id when both sides have one, otherwise by name and position). Only done for the waystone the player picks.
+     * @return null if the original screen doesn't list it
+     */
+    public static Object findOriginal(Screen originalScreen, WaystoneData waystone) {
+        for (Object obj : captureRaw(originalScreen)) {
+            try {
+                WaystoneData candidate = extractFromObject(obj);
+                if (candidate != null && isSameWaystone(candidate, waystone)) {
+                    return obj;
+                }
+            } catch (Throwable e) {
+                DebugLog.log("Failed to extract waystone from object: {}", e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private static boolean isSameWaystone(WaystoneData a, WaystoneData b) {
+        if (a.getId() != null && b.getId() != null) {
+            return a.getId().equals(b.getId());
+        }
+        return a.getName().equals(b.getName())
+            && a.getX() == b.getX() && a.getY() == b.getY() && a.getZ() == b.getZ()
+            && a.getDimension().equals(b.getDimension());
+    }
+    
+    /**
+     * Convert captured waystone objects, falling back to dummy data when nothing could be extracted
+     */
+    private static List<WaystoneData> convert(List<?> raw) {
+        List<WaystoneData> waystones = raw.isEmpty() ? new ArrayList<>() : extractFromList(raw);
+        
+        // If extraction failed or returned empty, use dummy data
+        if (waystones.isEmpty()) {
+            LOGGER.warn("Waystone extraction returned an empty list, using dummy data");
             waystones = getDummyWaystones();
-            System.out.println("[WaystoneInjector] Using " + waystones.size() + " dummy waystones after exception");
         }
         
+        DebugLog.log("Final waystone count: {}", waystones.size());
         return waystones;
     }
     
     /**
-     * Extract waystones using reflection
-     * Attempts to find and access the waystone list from the menu/container
+     * Find the waystone collection behind the screen using reflection and copy its elements
+     * Attempts the menu/container's getWaystones() first, then collection fields of the screen.
+     * Only checks that the first element looks like a waystone; per-waystone work is left to {@link #convert}.
+     * @return The captured objects, or an empty list if no waystone collection was found
      */
-    private static List<WaystoneData> extractViaReflection(Screen screen) {
-        List<WaystoneData> waystones = new ArrayList<>();
-        
+    private static List<Object> captureRaw(Screen screen) {
         try {
             Class<?> screenClass = screen.getClass();
+            DebugLog.log("Capturing waystones from screen {}", screenClass.getName());
             
             // FIRST: Try to get the menu/container from the screen (AbstractContainerScreen)
-            System.out.println("[WaystoneInjector] Looking for menu field...");
+            DebugLog.log("Looking for menu field...");
             Field menuField = findField(screenClass, "menu", "container");
             if (menuField != null) {
                 menuField.setAccessible(true);
                 Object menu = menuField.get(screen);
-                System.out.println("[WaystoneInjector] Found menu: " + menu.getClass().getName());
+                DebugLog.log("Found menu: {}", menu.getClass().getName());
                 
                 // Try to call getWaystones() on the menu
                 try {
                     Method getWaystonesMethod = menu.getClass().getMethod("getWaystones");
                     getWaystonesMethod.setAccessible(true);
                     Object result = getWaystonesMethod.invoke(menu);
-                    if (result instanceof java.util.Collection) {
-                        java.util.Collection<?> waystoneCollection = (java.util.Collection<?>) result;
-                        System.out.println("[WaystoneInjector] getWaystones() returned " + waystoneCollection.size() + " waystones!");
-                        waystones = extractFromList(new ArrayList<>(waystoneCollection));
-                        if (!waystones.isEmpty()) {
-                            return waystones;
-                        }
+                    if (result instanceof java.util.Collection<?> waystoneCollection && looksLikeWaystones(waystoneCollection)) {
+                        DebugLog.log("getWaystones() returned {} waystones", waystoneCollection.size());
+                        return new ArrayList<>(waystoneCollection);
                     }
                 } catch (Exception e) {
-                    System.out.println("[WaystoneInjector] getWaystones() method not found or failed: " + e.getMessage());
+                    DebugLog.log("getWaystones() method not found or failed: {}", e.getMessage());
                 }
             }
             
             // FALLBACK: Try to find the waystone list field directly in the screen
-            System.out.println("[WaystoneInjector] Trying to find waystone list in screen fields...");
-            Field[] fields = screenClass.getDeclaredFields();
-            
-            for (Field field : fields) {
+            DebugLog.log("Trying to find waystone list in screen fields...");
+            for (Field field : screenClass.getDeclaredFields()) {
                 field.setAccessible(true);
                 Object value = field.get(screen);
                 
-                System.out.println("[WaystoneInjector] Found field: " + field.getName() + " of type " + field.getType().getName());
+                DebugLog.log("Found field: {} of type {}", field.getName(), field.getType().getName());
                 
                 // Check if it's a List or Collection
-                if (value instanceof java.util.Collection) {
-                    java.util.Collection<?> collection = (java.util.Collection<?>) value;
-                    if (!collection.isEmpty()) {
-                        Object firstItem = collection.iterator().next();
-                        System.out.println("[WaystoneInjector] Found collection field '" + field.getName() + "' with " + collection.size() + " items of type " + firstItem.getClass().getName());
-                        
-                        // Try to extract waystone data from each item
-                        waystones = extractFromList(new ArrayList<>(collection));
-                        if (!waystones.isEmpty()) {
-                            return waystones;
-                        }
-                    }
+                if (value instanceof java.util.Collection<?> collection && looksLikeWaystones(collection)) {
+                    DebugLog.log("Found collection field '{}' with {} items of type {}", field.getName(), collection.size(), collection.iterator().next().getClass().getName());
+                    return new ArrayList<>(collection);
                 }
             }
             
-            // If we didn't find waystones, return dummy data for now
-            System.out.println("[WaystoneInjector] Could not find waystone list, using dummy data");
-            return getDummyWaystones();
-            
+            LOGGER.warn("Could not find waystone list");
         } catch (Exception e) {
-            System.err.println("[WaystoneInjector] Reflection extraction failed: " + e.getMessage());
-            e.printStackTrace();
-            return getDummyWaystones();
+            LOGGER.error("Reflection capture failed", e);
+        }
+        return List.of();
+    }
+    
+    private static boolean looksLikeWaystones(java.util.Collection<?> collection) {
+        if (collection.isEmpty()) {
+            return false;
         }
+        Object first = collection.iterator().next();
+        return first != null && ACCESSOR_PLANS.get(first.getClass()).name != null;
     }
     
     /**
@@ -151,8 +192,9 @@ public class WaystoneExtractor {
     
     /**
      * Try to extract waystone data from a list of unknown objects
+     * (package-private so the extraction benchmark can drive it without a screen)
      */
-    private static List<WaystoneData> extractFromList(List<?> unknownList) {
+    static List<WaystoneData> extractFromList(List<?> unknownList) {
         List<WaystoneData> waystones = new ArrayList<>();
         
         for (Object obj : unknownList) {
@@ -162,8 +204,8 @@ public class WaystoneExtractor {
                 if (data != null) {
                     waystones.add(data);
                 }
-            } catch (Exception e) {
-                System.err.println("[WaystoneInjector] Failed to extract waystone from object: " + e.getMessage());
+            } catch (Throwable e) {
+                DebugLog.log("Failed to extract waystone from object: {}", e.getMessage());
             }
         }
         
@@ -173,119 +215,194 @@ public class WaystoneExtractor {
     /**
      * Try to extract waystone data from an unknown object
      */
-    private static WaystoneData extractFromObject(Object obj) throws Exception {
-        Class<?> objClass = obj.getClass();
-        
-        // Try to find getName(), getPos(), getDimension() methods
-        String name = null;
-        int x = 0, y = 0, z = 0;
-        ResourceKey<Level> dimension = Level.OVERWORLD;
-        boolean isGlobal = false;
-        
-        // Try common method names
-        name = tryGetString(obj, "getName", "getWaystoneName", "name");
-        
-        // Try to get position
-        try {
-            Method getPosMethod = findMethod(objClass, "getPos", "getPosition", "pos");
-            if (getPosMethod != null) {
-                Object pos = getPosMethod.invoke(obj);
-                if (pos != null) {
-                    x = tryGetInt(pos, "getX", "x");
-                    y = tryGetInt(pos, "getY", "y");
-                    z = tryGetInt(pos, "getZ", "z");
-                }
-            }
-        } catch (Exception e) {
-            // Try direct coordinate methods
-            x = tryGetInt(obj, "getX", "x");
-            y = tryGetInt(obj, "getY", "y");
-            z = tryGetInt(obj, "getZ", "z");
+    private static WaystoneData extractFromObject(Object obj) throws Throwable {
+        AccessorPlan plan = ACCESSOR_PLANS.get(obj.getClass());
+        if (plan.name == null) {
+            return null;
         }
-        
-        // Try to get dimension
-        try {
-            Method getDimMethod = findMethod(objClass, "getDimension", "getLevel", "dimension");
-            if (getDimMethod != null) {
-                Object dim = getDimMethod.invoke(obj);
-                if (dim instanceof ResourceKey) {
-                    @SuppressWarnings("unchecked")
-                    ResourceKey<Level> dimKey = (ResourceKey<Level>) dim;
-                    dimension = dimKey;
-                }
-            }
-        } catch (Exception e) {
-            // Default to overworld
+
+        Object nameValue = (Object) plan.name.invokeExact(obj);
+        if (nameValue == null) {
+            return null;
         }
-        
-        // Try to get global status
-        try {
-            Method isGlobalMethod = findMethod(objClass, "isGlobal", "global");
-            if (isGlobalMethod != null) {
-                Object result = isGlobalMethod.invoke(obj);
-                if (result instanceof Boolean) {
-                    isGlobal = (Boolean) result;
-                }
+        String name = nameValue.toString();
+
+        int x = 0, y = 0, z = 0;
+        Object pos = plan.pos != null ? (Object) plan.pos.invokeExact(obj) : null;
+        if (pos instanceof Vec3i vec) {
+            x = vec.getX();
+            y = vec.getY();
+            z = vec.getZ();
+        } else if (pos != null) {
+            AccessorPlan posPlan = ACCESSOR_PLANS.get(pos.getClass());
+            x = posPlan.readX(pos);
+            y = posPlan.readY(pos);
+            z = posPlan.readZ(pos);
+        } else {
+            // No position accessor - try direct coordinate methods
+            x = plan.readX(obj);
+            y = plan.readY(obj);
+            z = plan.readZ(obj);
+        }
+
+        ResourceKey<Level> dimension = Level.OVERWORLD;
+        if (plan.dimension != null) {
+            Object dim = (Object) plan.dimension.invokeExact(obj);
+            if (dim instanceof ResourceKey) {
+                @SuppressWarnings("unchecked")
+                ResourceKey<Level> dimKey = (ResourceKey<Level>) dim;
+                dimension = dimKey;
             }
-        } catch (Exception e) {
-            // Default to false
         }
-        
-        if (name != null) {
-            return new WaystoneData(name, x, y, z, dimension, isGlobal, obj);
+
+        boolean isGlobal = plan.global != null && (boolean) plan.global.invokeExact(obj);
+
+        UUID id = null;
+        if (plan.id != null && (Object) plan.id.invokeExact(obj) instanceof UUID uuid) {
+            id = uuid;
         }
-        
-        return null;
+
+        return new WaystoneData(id, name, x, y, z, dimension, isGlobal, obj);
     }
-    
+
     /**
-     * Helper: Find a method by trying multiple possible names
+     * Accessors for one waystone (or position) class, resolved once per {@link Class} and reused for every
+     * instance. Each handle is adapted to an erased {@code (Object)} signature so extraction is a plain
+     * {@code invokeExact} with no lookups or argument boxing. A null handle means the class has no such accessor.
      */
-    private static Method findMethod(Class<?> clazz, String... methodNames) {
-        for (String methodName : methodNames) {
-            try {
-                Method method = clazz.getDeclaredMethod(methodName);
-                method.setAccessible(true);
-                return method;
-            } catch (NoSuchMethodException e) {
-                // Try next name
+    private static final ClassValue<AccessorPlan> ACCESSOR_PLANS = new ClassValue<>() {
+        @Override
+        protected AccessorPlan computeValue(Class<?> type) {
+            return AccessorPlan.resolve(type);
+        }
+    };
+
+    private static final class AccessorPlan {
+        private static final MethodType OBJECT_GETTER = MethodType.methodType(Object.class, Object.class);
+        private static final MethodType INT_GETTER = MethodType.methodType(int.class, Object.class);
+        private static final MethodType BOOLEAN_GETTER = MethodType.methodType(boolean.class, Object.class);
+
+        final MethodHandle name;
+        final MethodHandle pos;
+        final MethodHandle x;
+        final MethodHandle y;
+        final MethodHandle z;
+        final MethodHandle dimension;
+        final MethodHandle global;
+        final MethodHandle id;
+
+        private AccessorPlan(Class<?> type) {
+            this.name = objectGetter(type, "getName", "getWaystoneName", "name");
+            this.pos = objectGetter(type, "getPos", "getPosition", "pos");
+            this.x = intGetter(type, "getX", "x");
+            this.y = intGetter(type, "getY", "y");
+            this.z = intGetter(type, "getZ", "z");
+            this.dimension = objectGetter(type, "getDimension", "getLevel", "dimension");
+            this.global = booleanGetter(type, "isGlobal", "global");
+            this.id = objectGetter(type, "getWaystoneUid", "getId", "getUuid");
+        }
+
+        static AccessorPlan resolve(Class<?> type) {
+            return new AccessorPlan(type);
+        }
+
+        int readX(Object target) throws Throwable {
+            return x != null ? (int) x.invokeExact(target) : 0;
+        }
+
+        int readY(Object target) throws Throwable {
+            return y != null ? (int) y.invokeExact(target) : 0;
+        }
+
+        int readZ(Object target) throws Throwable {
+            return z != null ? (int) z.invokeExact(target) : 0;
+        }
+
+        private static MethodHandle objectGetter(Class<?> type, String... names) {
+            MethodHandle handle = unreflect(type, names);
+            return handle != null && !handle.type().returnType().isPrimitive() ? handle.asType(OBJECT_GETTER) : null;
+        }
+
+        private static MethodHandle intGetter(Class<?> type, String... names) {
+            MethodHandle handle = unreflect(type, names);
+            if (handle == null) {
+                return null;
             }
+            Class<?> returnType = handle.type().returnType();
+            if (returnType == int.class || returnType == short.class || returnType == byte.class || returnType == char.class) {
+                return handle.asType(INT_GETTER);
+            }
+            if (returnType == boolean.class) {
+                return null;
+            }
+            // Wider primitives and boxed numbers: unwrap through Number.intValue(), null/non-numbers read as 0
+            return MethodHandles.filterReturnValue(handle.asType(OBJECT_GETTER), NUMBER_TO_INT);
         }
-        return null;
-    }
-    
-    /**
-     * Helper: Try to get a String value from an object
-     */
-    private static String tryGetString(Object obj, String... methodNames) {
-        Method method = findMethod(obj.getClass(), methodNames);
-        if (method != null) {
+
+        private static MethodHandle booleanGetter(Class<?> type, String... names) {
+            MethodHandle handle = unreflect(type, names);
+            if (handle == null) {
+                return null;
+            }
+            Class<?> returnType = handle.type().returnType();
+            if (returnType == boolean.class) {
+                return handle.asType(BOOLEAN_GETTER);
+            }
+            return returnType == Boolean.class
+                ? MethodHandles.filterReturnValue(handle.asType(OBJECT_GETTER), OBJECT_TO_BOOLEAN)
+                : null;
+        }
+
+        private static MethodHandle unreflect(Class<?> type, String... names) {
+            Method method = findMethod(type, names);
+            if (method == null || method.getReturnType() == void.class) {
+                return null;
+            }
             try {
-                Object result = method.invoke(obj);
-                return result != null ? result.toString() : null;
-            } catch (Exception e) {
-                // Ignore
+                return MethodHandles.lookup().unreflect(method);
+            } catch (IllegalAccessException e) {
+                return null;
             }
         }
-        return null;
     }
-    
+
+    private static final MethodHandle NUMBER_TO_INT;
+    private static final MethodHandle OBJECT_TO_BOOLEAN;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            NUMBER_TO_INT = lookup.findStatic(WaystoneExtractor.class, "numberToInt", AccessorPlan.INT_GETTER);
+            OBJECT_TO_BOOLEAN = lookup.findStatic(WaystoneExtractor.class, "objectToBoolean", AccessorPlan.BOOLEAN_GETTER);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static int numberToInt(Object value) {
+        return value instanceof Number number ? number.intValue() : 0;
+    }
+
+    private static boolean objectToBoolean(Object value) {
+        return value instanceof Boolean bool && bool;
+    }
+
     /**
-     * Helper: Try to get an int value from an object
+     * Helper: Find a zero-argument method by trying multiple possible names, walking up the class hierarchy
      */
-    private static int tryGetInt(Object obj, String... methodNames) {
-        Method method = findMethod(obj.getClass(), methodNames);
-        if (method != null) {
-            try {
-                Object result = method.invoke(obj);
-                if (result instanceof Number) {
-                    return ((Number) result).intValue();
+    private static Method findMethod(Class<?> clazz, String... methodNames) {
+        for (Class<?> current = clazz; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (String methodName : methodNames) {
+                try {
+                    Method method = current.getDeclaredMethod(methodName);
+                    method.setAccessible(true);
+                    return method;
+                } catch (NoSuchMethodException | RuntimeException e) {
+                    // Try next name
                 }
-            } catch (Exception e) {
-                // Ignore
             }
         }
-        return 0;
+        return null;
     }
     
     /**
@@ -301,7 +418,7 @@ public class WaystoneExtractor {
         waystones.add(new WaystoneData("End Portal", 0, 48, 0, Level.END, false, null));
         waystones.add(new WaystoneData("Mountain Base", -200, 120, 400, Level.OVERWORLD, false, null));
         
-        System.out.println("[WaystoneInjector] Using " + waystones.size() + " dummy waystones for testing");
+        DebugLog.log("Using {} dummy waystones for testing", waystones.size());
         
         return waystones;
     }
@@ -1,97 +1,281 @@
 package com.example.waystoneinjector.client.gui;
 
+import com.example.waystoneinjector.client.BackgroundIo;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
 import com.google.gson.reflect.TypeToken;
 
-import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Manages persistent waystone ordering per player
  * Phase 5: Save and load custom waystone order
+ *
+ * The order is kept in memory as a ranked list of names plus a name-to-rank map, loaded once from the
+ * order file. A drag-and-drop is recorded as a single move: it rotates only the ranks between the old and new
+ * position and appends one line ("name", "placed after") to a journal next to the order file. The journal is
+ * replayed on load and folded into the order file every {@link #COMPACT_AFTER} moves, so a reorder costs the
+ * same whatever the number of waystones. All file writes run on {@link BackgroundIo}, in submission order.
+ *
+ * Replaying a move is not idempotent, so the order file carries a generation that every journal line repeats.
+ * Folding bumps the generation; lines left over from an older one (a crash before the journal was deleted) are
+ * already part of the order file and are skipped.
+ *
+ * Methods are synchronized: the order is applied on the background thread while moves come from the client.
  */
 public class WaystoneOrderManager {
-    
+
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final int COMPACT_AFTER = 256;
+
     private static Path orderFilePath = null;
-    
-    public static void setOrderFilePath(Path path) {
-        orderFilePath = path;
+
+    // Loaded order for orderFilePath (null until first used): names by rank, and rank by name
+    private static List<String> rankedNames = null;
+    private static Map<String, Integer> ranks = null;
+    private static int generation = 0;
+    private static int journalMoves = 0;
+
+    public static synchronized void setOrderFilePath(Path path) {
+        if (!Objects.equals(orderFilePath, path)) {
+            orderFilePath = path;
+            rankedNames = null;
+            ranks = null;
+        }
     }
-    
+
     /**
-     * Load saved waystone order from file
-     * @return Map of waystone name to display index
+     * Load saved waystone order, reading the files only the first time
+     * @return Map of waystone name to display index (a live view; read it while holding the class lock)
      */
-    public static Map<String, Integer> loadWaystoneOrder() {
-        if (orderFilePath == null || !Files.exists(orderFilePath)) {
-            return new HashMap<>();
-        }
-        
-        try {
-            String json = Files.readString(orderFilePath);
-            TypeToken<Map<String, Integer>> typeToken = new TypeToken<Map<String, Integer>>() {};
-            return GSON.fromJson(json, typeToken.getType());
-        } catch (Exception e) {
-            System.err.println("[WaystoneInjector] Failed to load waystone order: " + e.getMessage());
-            return new HashMap<>();
+    public static synchronized Map<String, Integer> loadWaystoneOrder() {
+        if (ranks == null) {
+            readOrderFiles();
         }
+        return Collections.unmodifiableMap(ranks);
     }
-    
+
+    private static void readOrderFiles() {
+        rankedNames = new ArrayList<>();
+        ranks = new HashMap<>();
+        generation = 0;
+        journalMoves = 0;
+        if (orderFilePath == null) {
+            return;
+        }
+
+        if (Files.exists(orderFilePath)) {
+            try {
+                String json = Files.readString(orderFilePath);
+                JsonElement root = JsonParser.parseString(json);
+                Map<String, Integer> loaded = null;
+                if (root.isJsonObject() && root.getAsJsonObject().has("order") && root.getAsJsonObject().get("order").isJsonObject()) {
+                    OrderFile file = GSON.fromJson(root, OrderFile.class);
+                    generation = file.generation;
+                    loaded = file.order;
+                } else if (root.isJsonObject()) {
+                    // Files written before the journal are a bare name-to-rank map (generation 0)
+                    TypeToken<Map<String, Integer>> typeToken = new TypeToken<Map<String, Integer>>() {};
+                    loaded = GSON.fromJson(root, typeToken.getType());
+                }
+                if (loaded != null) {
+                    // Saved ranks may have gaps; only their relative order matters
+                    List<Map.Entry<String, Integer>> entries = new ArrayList<>(loaded.entrySet());
+                    entries.sort(Map.Entry.comparingByValue());
+                    for (Map.Entry<String, Integer> entry : entries) {
+                        addLast(entry.getKey());
+                    }
+                }
+            } catch (Exception e) {
+                System.err.println("[WaystoneInjector] Failed to load waystone order: " + e.getMessage());
+            }
+        }
+
+        Path journal = journalPath();
+        if (Files.exists(journal)) {
+            try {
+                for (String line : Files.readAllLines(journal, StandardCharsets.UTF_8)) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    // [generation, name, placed after (null for the top)]
+                    JsonArray move = JsonParser.parseString(line).getAsJsonArray();
+                    if (move.size() != 3 || move.get(0).getAsInt() != generation) {
+                        continue;
+                    }
+                    JsonElement after = move.get(2);
+                    applyMove(move.get(1).getAsString(), after.isJsonNull() ? null : after.getAsString());
+                    journalMoves++;
+                }
+            } catch (Exception e) {
+                // A torn last line (crash mid-append) only loses that move
+                System.err.println("[WaystoneInjector] Failed to replay waystone order journal: " + e.getMessage());
+            }
+        }
+    }
+
+    private static Path journalPath() {
+        return orderFilePath.resolveSibling(orderFilePath.getFileName() + ".journal");
+    }
+
+    private static void addLast(String name) {
+        if (ranks.putIfAbsent(name, rankedNames.size()) == null) {
+            rankedNames.add(name);
+        }
+    }
+
+    /**
+     * Move {@code name} to just after {@code after} (to the front if null), rotating only the ranks in between.
+     * @return Whether both names were known
+     */
+    private static boolean applyMove(String name, String after) {
+        Integer from = ranks.get(name);
+        Integer anchor = after != null ? ranks.get(after) : Integer.valueOf(-1);
+        if (from == null || anchor == null) {
+            return false;
+        }
+
+        // Ranks past the moved name shift down by one once it is taken out
+        int to = from < anchor ? anchor : anchor + 1;
+        if (to == from || name.equals(after)) {
+            return true;
+        }
+        int low = Math.min(from, to);
+        int high = Math.max(from, to);
+        Collections.rotate(rankedNames.subList(low, high + 1), from < to ? -1 : 1);
+        for (int rank = low; rank <= high; rank++) {
+            ranks.put(rankedNames.get(rank), rank);
+        }
+        return true;
+    }
+
     /**
-     * Save current waystone order to file
-     * @param orderedWaystones List of waystones in current display order
+     * Record a drag-and-drop: {@code movedId} now directly follows {@code afterId} (-1 for the top of the list).
+     * In a filtered view the neighbour is the nearest visible waystone, so the move is kept relative to it.
+     * @param directory Waystones the ids refer to, in the order currently displayed
      */
-    public static void saveWaystoneOrder(List<WaystoneData> orderedWaystones) {
+    public static synchronized void moveWaystone(WaystoneDirectory directory, int movedId, int afterId) {
         if (orderFilePath == null) {
             return;
         }
-        
-        try {
-            // Create map of waystone name to index
-            Map<String, Integer> orderMap = new HashMap<>();
-            for (int i = 0; i < orderedWaystones.size(); i++) {
-                orderMap.put(orderedWaystones.get(i).getName(), i);
+        boolean known = moveInMemory(directory, movedId, afterId);
+        if (!known || ++journalMoves >= COMPACT_AFTER) {
+            writeOrderFile();
+            return;
+        }
+
+        String name = directory.name(movedId);
+        String after = afterId >= 0 ? directory.name(afterId) : null;
+        JsonArray move = new JsonArray();
+        move.add(generation);
+        move.add(name);
+        move.add(after);
+        String line = move + "\n";
+        Path journal = journalPath();
+        BackgroundIo.execute(() -> {
+            try {
+                Files.writeString(journal, line, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (Exception e) {
+                System.err.println("[WaystoneInjector] Failed to append waystone order journal: " + e.getMessage());
             }
-            
-            // Ensure parent directory exists
-            Files.createDirectories(orderFilePath.getParent());
-            
-            // Write to file
-            String json = GSON.toJson(orderMap);
-            Files.writeString(orderFilePath, json);
-            
-            System.out.println("[WaystoneInjector] Saved waystone order: " + orderedWaystones.size() + " waystones");
-            
-        } catch (IOException e) {
-            System.err.println("[WaystoneInjector] Failed to save waystone order: " + e.getMessage());
+        });
+    }
+
+    /**
+     * The in-memory half of {@link #moveWaystone}, without touching the files.
+     * @return Whether both waystones already had a saved rank (otherwise every unranked one was ranked first)
+     */
+    static synchronized boolean moveInMemory(WaystoneDirectory directory, int movedId, int afterId) {
+        loadWaystoneOrder();
+
+        String name = directory.name(movedId);
+        String after = afterId >= 0 ? directory.name(afterId) : null;
+        boolean known = ranks.containsKey(name) && (after == null || ranks.containsKey(after));
+        if (!known) {
+            // Waystones without a saved rank are shown last in directory order; rank them that way first
+            for (int id = 0; id < directory.size(); id++) {
+                addLast(directory.name(id));
+            }
+        }
+        applyMove(name, after);
+        return known;
+    }
+
+    /**
+     * Fold the current order into the order file under a new generation and drop the journal. Queued behind
+     * earlier journal appends, so the file never goes back to an older order.
+     */
+    private static void writeOrderFile() {
+        OrderFile snapshot = new OrderFile();
+        snapshot.generation = ++generation;
+        for (int rank = 0; rank < rankedNames.size(); rank++) {
+            snapshot.order.put(rankedNames.get(rank), rank);
         }
+        journalMoves = 0;
+
+        Path path = orderFilePath;
+        Path journal = journalPath();
+        BackgroundIo.execute(() -> {
+            try {
+                BackgroundIo.writeAtomically(path, GSON.toJson(snapshot).getBytes(StandardCharsets.UTF_8));
+                Files.deleteIfExists(journal);
+            } catch (Exception e) {
+                System.err.println("[WaystoneInjector] Failed to save waystone order: " + e.getMessage());
+            }
+        });
     }
-    
+
     /**
      * Apply saved order to a list of waystones
-     * @param waystones Original waystone list
+     * @param waystones Original waystone list (not modified, so shared snapshots can be passed in)
      * @return Reordered waystone list
      */
-    public static List<WaystoneData> applyOrder(List<WaystoneData> waystones) {
+    public static synchronized List<WaystoneData> applyOrder(List<WaystoneData> waystones) {
         Map<String, Integer> orderMap = loadWaystoneOrder();
-        
+
         if (orderMap.isEmpty()) {
             return waystones; // No saved order
         }
-        
-        // Sort waystones by saved order
-        waystones.sort((a, b) -> {
-            Integer indexA = orderMap.getOrDefault(a.getName(), Integer.MAX_VALUE);
-            Integer indexB = orderMap.getOrDefault(b.getName(), Integer.MAX_VALUE);
-            return indexA.compareTo(indexB);
-        });
-        
-        return waystones;
+
+        // Look each rank up once and pack (rank, original index) into a long, so a primitive sort
+        // orders by saved rank and keeps the original order for ties (unsaved waystones go last)
+        int size = waystones.size();
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            Integer saved = orderMap.get(waystones.get(i).getName());
+            int rank = saved != null ? saved : Integer.MAX_VALUE;
+            keys[i] = ((long) rank << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        List<WaystoneData> ordered = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ordered.add(waystones.get((int) keys[i]));
+        }
+
+        return ordered;
+    }
+
+    /**
+     * On-disk form of the order file.
+     */
+    private static final class OrderFile {
+        int generation;
+        Map<String, Integer> order = new LinkedHashMap<>();
     }
 }
@@ -0,0 +1,184 @@
+package com.example.waystoneinjector.client.gui;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Inverted n-gram index over waystone names and dimension names of a {@link WaystoneDirectory}.
+ *
+ * Every 1-, 2- and 3-character substring of each (lowercased) field maps to a sorted posting list of
+ * waystone indices. Queries of up to 3 characters are a single posting lookup; longer queries intersect
+ * the posting lists of their trigrams and verify the (few) survivors against the directory's packed lowercase
+ * names, so search cost follows the number of hits rather than the number of waystones.
+ *
+ * The index is immutable: build it once for a list and rebuild if the list changes.
+ */
+public final class WaystoneSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final int[] EMPTY = new int[0];
+
+    private final WaystoneDirectory directory;
+    private final int[] all;
+    private final Map<String, int[]> postings;
+
+    private WaystoneSearchIndex(WaystoneDirectory directory) {
+        int size = directory.size();
+        this.directory = directory;
+        this.all = directory.allIds();
+
+        Map<String, PostingBuilder> builders = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            addGrams(builders, directory.lowerName(i), i);
+            addGrams(builders, directory.lowerDimensionName(directory.dimensionId(i)), i);
+        }
+
+        this.postings = new HashMap<>(builders.size() * 2);
+        for (Map.Entry<String, PostingBuilder> entry : builders.entrySet()) {
+            postings.put(entry.getKey(), entry.getValue().toArray());
+        }
+    }
+
+    /**
+     * Build an index over a directory. Results are directory ids.
+     */
+    public static WaystoneSearchIndex build(WaystoneDirectory directory) {
+        return new WaystoneSearchIndex(directory);
+    }
+
+    public int size() {
+        return all.length;
+    }
+
+    /**
+     * Find the waystones whose name or dimension name contains the query (case-insensitive).
+     * @return Ascending directory ids; do not modify
+     */
+    public int[] search(String query) {
+        String q = normalize(query);
+        if (q.isEmpty()) {
+            return all;
+        }
+
+        if (q.length() <= GRAM) {
+            // Every substring up to the gram size is indexed exactly, no verification needed
+            return postings.getOrDefault(q, EMPTY);
+        }
+
+        int gramCount = q.length() - GRAM + 1;
+        int[][] lists = new int[gramCount][];
+        for (int i = 0; i < gramCount; i++) {
+            int[] posting = postings.get(q.substring(i, i + GRAM));
+            if (posting == null) {
+                return EMPTY;
+            }
+            lists[i] = posting;
+        }
+
+        // Intersect smallest-first so the candidate set shrinks as fast as possible
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.length, b.length));
+        int[] candidates = lists[0];
+        for (int i = 1; i < lists.length && candidates.length > 0; i++) {
+            candidates = intersect(candidates, lists[i]);
+        }
+
+        // Trigram co-occurrence doesn't guarantee adjacency (or the same field); confirm the survivors
+        int[] hits = new int[candidates.length];
+        int count = 0;
+        for (int id : candidates) {
+            if (matchesNormalized(id, q)) {
+                hits[count++] = id;
+            }
+        }
+        return count == hits.length ? hits : Arrays.copyOf(hits, count);
+    }
+
+    /**
+     * Narrow a previous result set for a query that extends the query which produced it.
+     * Anything matching the longer query also matched the shorter one, so only the previous hits are checked.
+     * @param previousHits Result of an earlier {@link #search} or {@link #narrow} call
+     * @return Ascending directory ids; do not modify
+     */
+    public int[] narrow(int[] previousHits, String query) {
+        String q = normalize(query);
+        if (q.isEmpty()) {
+            return all;
+        }
+
+        int[] hits = new int[previousHits.length];
+        int count = 0;
+        for (int id : previousHits) {
+            if (matchesNormalized(id, q)) {
+                hits[count++] = id;
+            }
+        }
+        return count == hits.length ? previousHits : Arrays.copyOf(hits, count);
+    }
+
+    /**
+     * Whether results for {@code query} are guaranteed to be a subset of results for {@code previousQuery}.
+     */
+    public static boolean narrows(String query, String previousQuery) {
+        String previous = normalize(previousQuery);
+        return !previous.isEmpty() && normalize(query).contains(previous);
+    }
+
+    private boolean matchesNormalized(int id, String normalizedQuery) {
+        return directory.matches(id, normalizedQuery);
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static void addGrams(Map<String, PostingBuilder> builders, String text, int id) {
+        int length = text.length();
+        for (int start = 0; start < length; start++) {
+            int maxEnd = Math.min(length, start + GRAM);
+            for (int end = start + 1; end <= maxEnd; end++) {
+                builders.computeIfAbsent(text.substring(start, end), k -> new PostingBuilder()).add(id);
+            }
+        }
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, count = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[count++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, count);
+    }
+
+    /**
+     * Growable ascending posting list. Ids arrive in increasing order, so duplicates are always adjacent.
+     */
+    private static final class PostingBuilder {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] == id) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
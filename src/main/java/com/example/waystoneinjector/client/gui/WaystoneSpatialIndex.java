@@ -0,0 +1,348 @@
+package com.example.waystoneinjector.client.gui;
+
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Per-dimension grid over the x/z positions of a {@link WaystoneDirectory}, used to order the menu nearest first.
+ *
+ * Each dimension's waystones are bucketed into square cells sized from the dimension's extent and count (about
+ * {@link #TARGET_PER_CELL} waystones per cell), stored as a sorted array of cell keys with the waystone indices
+ * grouped per cell. Ordering walks rings of cells outwards from the player's cell; a waystone is emitted as soon
+ * as no unvisited cell can hold a closer one, so only a ring's worth of candidates is ever pending, and the walk
+ * stops once every requested waystone has been seen. Small result sets, and grids stretched by a few far-off
+ * waystones, are sorted directly instead.
+ *
+ * Distances are horizontal (x/z), like {@link WaystoneData#getDistanceToPlayer}, and compared squared.
+ * The index is immutable: build it once for a list and rebuild if the list changes.
+ */
+public final class WaystoneSpatialIndex {
+
+    private static final int TARGET_PER_CELL = 2;
+    // Walk the grid when the hits are at least 1/WALK_MIN_SHARE of their dimension; sort a few hits directly
+    private static final int WALK_MIN_SHARE = 8;
+    // A walk visits every cell up to the farthest hit, so it needs a grid without huge empty stretches (outliers)
+    private static final int WALK_MAX_CELLS_PER_ENTRY = 4;
+    private static final int MIN_SHIFT = 5;
+    private static final int MAX_SHIFT = 30;
+    private static final int CELL_BITS = 21;
+    private static final int MAX_CELL = (1 << CELL_BITS) - 1;
+    private static final int MAX_ENTRIES = 1 << CELL_BITS;
+
+    private final WaystoneDirectory directory;
+    private final Grid[] grids;
+
+    private WaystoneSpatialIndex(WaystoneDirectory directory) {
+        int size = directory.size();
+        if (size > MAX_ENTRIES) {
+            throw new IllegalArgumentException("Too many waystones to index: " + size);
+        }
+        this.directory = directory;
+
+        int[] counts = new int[directory.dimensionCount()];
+        for (int i = 0; i < size; i++) {
+            counts[directory.dimensionId(i)]++;
+        }
+        int[][] members = new int[counts.length][];
+        for (int d = 0; d < members.length; d++) {
+            members[d] = new int[counts[d]];
+            counts[d] = 0;
+        }
+        for (int i = 0; i < size; i++) {
+            int d = directory.dimensionId(i);
+            members[d][counts[d]++] = i;
+        }
+        this.grids = new Grid[members.length];
+        for (int d = 0; d < members.length; d++) {
+            grids[d] = new Grid(members[d]);
+        }
+    }
+
+    /**
+     * Build an index over a directory. Results are directory ids.
+     */
+    public static WaystoneSpatialIndex build(WaystoneDirectory directory) {
+        return new WaystoneSpatialIndex(directory);
+    }
+
+    public int size() {
+        return directory.size();
+    }
+
+    /**
+     * Horizontal squared distance from (x, z) to the waystone at {@code id}, ignoring dimensions.
+     */
+    public double distanceSq(int id, double x, double z) {
+        double dx = directory.x(id) - x;
+        double dz = directory.z(id) - z;
+        return dx * dx + dz * dz;
+    }
+
+    /**
+     * Order a result set by distance: waystones in {@code dimension} nearest first, then the ones in other
+     * dimensions in their given order.
+     * @param ids Directory ids (e.g. search hits); not modified
+     * @return A new array with the same indices
+     */
+    public int[] sortByDistance(int[] ids, ResourceKey<Level> dimension, double x, double z) {
+        int dimensionId = directory.dimensionIdOf(dimension);
+        if (dimensionId < 0) {
+            return ids.clone();
+        }
+
+        int inDimension = 0;
+        for (int id : ids) {
+            if (directory.dimensionId(id) == dimensionId) {
+                inDimension++;
+            }
+        }
+        Grid grid = grids[dimensionId];
+        if (inDimension > 0 && inDimension * WALK_MIN_SHARE >= grid.ids.length && grid.isDense()) {
+            boolean[] include = new boolean[directory.size()];
+            for (int id : ids) {
+                include[id] = directory.dimensionId(id) == dimensionId;
+            }
+            int[] sorted = new int[ids.length];
+            int count = grid.nearestFirst(x, z, include, inDimension, sorted);
+            // Then the other dimensions in their given order
+            for (int id : ids) {
+                if (!include[id]) {
+                    sorted[count++] = id;
+                }
+            }
+            return sorted;
+        }
+
+        // Non-negative floats order like their bit patterns, so (distance bits, position) sorts as one long
+        long[] keys = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            int id = ids[i];
+            float distance = directory.dimensionId(id) == dimensionId
+                ? (float) distanceSq(id, x, z)
+                : Float.POSITIVE_INFINITY;
+            keys[i] = (long) Float.floatToIntBits(distance) << 32 | i;
+        }
+        Arrays.sort(keys);
+
+        int[] sorted = new int[ids.length];
+        for (int i = 0; i < keys.length; i++) {
+            sorted[i] = ids[(int) keys[i]];
+        }
+        return sorted;
+    }
+
+    private static int floorToInt(double value) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, Math.floor(value)));
+    }
+
+    private static long cellKey(int column, int row) {
+        return (long) column << CELL_BITS | row;
+    }
+
+    /**
+     * One dimension's waystones, grouped by cell. Cell coordinates are relative to the dimension's minimum so both
+     * fit in {@link #CELL_BITS} bits; {@code cellKeys} are ascending (column-major), so a column's cells form one run.
+     */
+    private final class Grid {
+        final int shift;
+        final int minX;
+        final int minZ;
+        final int columns;
+        final int rows;
+        final long[] cellKeys;
+        final int[] cellStart;
+        final int[] ids;
+
+        Grid(int[] members) {
+            int minX = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE;
+            int minZ = Integer.MAX_VALUE, maxZ = Integer.MIN_VALUE;
+            for (int id : members) {
+                minX = Math.min(minX, directory.x(id));
+                maxX = Math.max(maxX, directory.x(id));
+                minZ = Math.min(minZ, directory.z(id));
+                maxZ = Math.max(maxZ, directory.z(id));
+            }
+            long spanX = (long) maxX - minX;
+            long spanZ = (long) maxZ - minZ;
+
+            double area = (double) (spanX + 1) * (spanZ + 1);
+            double cellSize = Math.sqrt(area * TARGET_PER_CELL / members.length);
+            int shift = Math.max(MIN_SHIFT, 64 - Long.numberOfLeadingZeros((long) Math.ceil(cellSize) - 1));
+            while (shift < MAX_SHIFT && ((spanX >> shift) > MAX_CELL || (spanZ >> shift) > MAX_CELL)) {
+                shift++;
+            }
+            this.shift = shift;
+            this.minX = minX;
+            this.minZ = minZ;
+            this.columns = (int) (spanX >> shift) + 1;
+            this.rows = (int) (spanZ >> shift) + 1;
+
+            // (cell key, member index) packed so one primitive sort groups the members by cell
+            long[] packed = new long[members.length];
+            for (int i = 0; i < members.length; i++) {
+                int id = members[i];
+                packed[i] = cellKey(column(directory.x(id)), row(directory.z(id))) << CELL_BITS | i;
+            }
+            Arrays.sort(packed);
+
+            this.ids = new int[members.length];
+            long[] keys = new long[members.length];
+            int[] starts = new int[members.length + 1];
+            int cells = 0;
+            for (int i = 0; i < packed.length; i++) {
+                long key = packed[i] >>> CELL_BITS;
+                ids[i] = members[(int) (packed[i] & MAX_CELL)];
+                if (cells == 0 || keys[cells - 1] != key) {
+                    keys[cells] = key;
+                    starts[cells] = i;
+                    cells++;
+                }
+            }
+            starts[cells] = packed.length;
+            this.cellKeys = Arrays.copyOf(keys, cells);
+            this.cellStart = Arrays.copyOf(starts, cells + 1);
+        }
+
+        boolean isDense() {
+            return (long) columns * rows <= (long) WALK_MAX_CELLS_PER_ENTRY * ids.length;
+        }
+
+        int column(int x) {
+            return (int) (((long) x - minX) >> shift);
+        }
+
+        int row(int z) {
+            return (int) (((long) z - minZ) >> shift);
+        }
+
+        /**
+         * Write the {@code wanted} ids marked in {@code include} to {@code out}, nearest to (x, z) first.
+         * @return Number of ids written
+         */
+        int nearestFirst(double x, double z, boolean[] include, int wanted, int[] out) {
+            long qx = ((long) floorToInt(x) - minX) >> shift;
+            long qz = ((long) floorToInt(z) - minZ) >> shift;
+            long cellSize = 1L << shift;
+
+            // Rings closer than the grid's edge are empty; rings past the far edge cover nothing new
+            long first = Math.max(0, Math.max(Math.max(-qx, qx - (columns - 1)), Math.max(-qz, qz - (rows - 1))));
+            long last = Math.max(Math.max(qx, columns - 1 - qx), Math.max(qz, rows - 1 - qz));
+
+            // (squared distance bits, id): non-negative floats order like their bit patterns
+            PendingHeap pending = new PendingHeap();
+            IntConsumer offer = id -> {
+                if (include[id]) {
+                    pending.add((long) Float.floatToIntBits((float) distanceSq(id, x, z)) << 32 | id);
+                }
+            };
+            int written = 0;
+            for (long r = first; r <= last && pending.added() < wanted; r++) {
+                for (long c = Math.max(0, qx - r); c <= Math.min(columns - 1, qx + r); c++) {
+                    if (c == qx - r || c == qx + r) {
+                        scanColumn((int) c, qz - r, qz + r, offer);
+                    } else {
+                        scanColumn((int) c, qz - r, qz - r, offer);
+                        scanColumn((int) c, qz + r, qz + r, offer);
+                    }
+                }
+                // Every cell of the next ring is at least r cells away from the query point
+                double bound = (double) r * cellSize;
+                float boundSq = (float) (bound * bound);
+                while (!pending.isEmpty() && Float.intBitsToFloat((int) (pending.peek() >>> 32)) <= boundSq) {
+                    out[written++] = (int) pending.poll();
+                }
+            }
+            // Everything wanted has been seen; the rest comes out in distance order
+            while (!pending.isEmpty()) {
+                out[written++] = (int) pending.poll();
+            }
+            return written;
+        }
+
+        /**
+         * Visit the waystones in one column's cells from {@code fromRow} to {@code toRow} (clamped to the grid).
+         */
+        private void scanColumn(int column, long fromRow, long toRow, IntConsumer visitor) {
+            if (toRow < 0 || fromRow >= rows) {
+                return;
+            }
+            long lastKey = cellKey(column, (int) Math.min(rows - 1, toRow));
+            for (int cell = lowerBound(cellKey(column, (int) Math.max(0, fromRow)));
+                 cell < cellKeys.length && cellKeys[cell] <= lastKey; cell++) {
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                    visitor.accept(ids[i]);
+                }
+            }
+        }
+
+        private int lowerBound(long key) {
+            int index = Arrays.binarySearch(cellKeys, key);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+
+    /**
+     * Growable min-heap of packed (squared distance, id) keys waiting to be emitted.
+     */
+    private static final class PendingHeap {
+        private long[] keys = new long[16];
+        private int size;
+        private int added;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int added() {
+            return added;
+        }
+
+        long peek() {
+            return keys[0];
+        }
+
+        void add(long key) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            added++;
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                keys[i] = keys[parent];
+                i = parent;
+            }
+            keys[i] = key;
+        }
+
+        long poll() {
+            long top = keys[0];
+            long key = keys[--size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (keys[child] >= key) {
+                    break;
+                }
+                keys[i] = keys[child];
+                i = child;
+            }
+            if (size > 0) {
+                keys[i] = key;
+            }
+            return top;
+        }
+    }
+}
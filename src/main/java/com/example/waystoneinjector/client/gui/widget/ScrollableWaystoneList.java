@@ -1,6 +1,7 @@
 package com.example.waystoneinjector.client.gui.widget;
 
 import com.example.waystoneinjector.client.gui.WaystoneData;
+import com.example.waystoneinjector.client.gui.WaystoneDirectory;
 import com.example.waystoneinjector.client.gui.WaystoneOrderManager;
 import com.example.waystoneinjector.client.gui.tooltip.WaystoneTooltipRenderer;
 import net.minecraft.client.Minecraft;
@@ -14,6 +15,7 @@ import net.minecraft.resources.ResourceKey;
 import net.minecraft.world.level.Level;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.function.Consumer;
 
@@ -21,6 +23,9 @@ import java.util.function.Consumer;
  * Scrollable container widget for displaying waystone list
  * Phase 5: Drag-and-drop reordering support
  * Phase 6: CTRL+hover tooltip support
+ *
+ * Rows are an {@code int[]} view of {@link WaystoneDirectory} ids; the list never holds per-waystone objects.
+ * Until the screen's waystones are ready the list is in a loading state and draws placeholder rows.
  */
 @SuppressWarnings("null")
 public class ScrollableWaystoneList extends AbstractWidget {
@@ -28,13 +33,27 @@ public class ScrollableWaystoneList extends AbstractWidget {
     private static final int SCROLLBAR_WIDTH = 6;
     private static final int BUTTON_HEIGHT = 20;
     private static final int BUTTON_SPACING = 2;
+    private static final int ROW_PITCH = BUTTON_HEIGHT + BUTTON_SPACING;
     private static final int SCROLLBAR_COLOR = 0xFF8B8B8B;
     private static final int SCROLLBAR_BG_COLOR = 0xFF303030;
+    private static final int SKELETON_COLOR = 0x606060;
+    private static final double SKELETON_PULSE_MS = 900.0;
     
-    private List<WaystoneData> waystones;
-    private final List<Button> waystoneButtons = new ArrayList<>();
+    private WaystoneDirectory directory;
+    private int[] view;
+    // Whether view is our own copy (made on the first reorder) rather than the caller's array
+    private boolean viewOwned;
+    private boolean loading;
     private final Consumer<WaystoneData> onWaystoneSelected;
     
+    // Virtualized rows: a fixed pool of buttons recycled for whichever rows intersect the viewport.
+    // A row index always maps to pool slot (index % pool size); rowPoolIndex tracks the row each slot shows and
+    // rowPoolId the directory id its label was built for, the key that lets a button follow its waystone.
+    private final List<Button> rowPool = new ArrayList<>();
+    private int[] rowPoolIndex = new int[0];
+    private int[] rowPoolId = new int[0];
+    private Button dragRow;
+    
     private double scrollOffset = 0.0;
     private int maxScroll = 0;
     private boolean isDraggingScrollbar = false;
@@ -45,42 +64,195 @@ public class ScrollableWaystoneList extends AbstractWidget {
     private int draggedIndex = -1;
     private double draggedButtonY = 0;
     private int dropTargetIndex = -1;
+    private boolean reorderEnabled = true;
     
     // Tooltip state (Phase 6)
     private int hoveredIndex = -1;
+    private int tooltipId = -1;
+    private WaystoneData tooltipWaystone;
     
-    public ScrollableWaystoneList(int x, int y, int width, int height, List<WaystoneData> waystones, Consumer<WaystoneData> onWaystoneSelected) {
+    /**
+     * @param view Directory ids in display order; not modified (the first reorder copies it)
+     */
+    public ScrollableWaystoneList(int x, int y, int width, int height, WaystoneDirectory directory, int[] view, Consumer<WaystoneData> onWaystoneSelected) {
         super(x, y, width, height, Component.literal("Waystone List"));
-        this.waystones = waystones;
+        this.directory = directory;
+        this.view = view;
         this.onWaystoneSelected = onWaystoneSelected;
         this.updateButtons();
     }
     
-    public void updateWaystones(List<WaystoneData> newWaystones) {
-        this.waystones = newWaystones;
+    /**
+     * Allow SHIFT+drag reordering (off while the list is shown in a computed order, e.g. by distance).
+     */
+    public void setReorderEnabled(boolean reorderEnabled) {
+        this.reorderEnabled = reorderEnabled;
+    }
+    
+    /**
+     * Show placeholder rows instead of the (empty) view until {@link #setDirectory} delivers the waystones.
+     */
+    public void setLoading(boolean loading) {
+        this.loading = loading;
+    }
+    
+    /**
+     * Switch to a newly loaded directory (ends the loading state).
+     */
+    public void setDirectory(WaystoneDirectory directory, int[] view) {
+        this.directory = directory;
+        this.loading = false;
+        this.tooltipId = -1;
+        this.tooltipWaystone = null;
+        // Ids of the old directory mean nothing in the new one
+        Arrays.fill(rowPoolId, -1);
+        updateWaystones(view);
+    }
+    
+    /**
+     * Show another view of the directory (e.g. new search hits); not modified.
+     */
+    public void updateWaystones(int[] newView) {
+        this.view = newView;
+        this.viewOwned = false;
         this.scrollOffset = 0; // Reset scroll when list changes
         this.updateButtons();
     }
     
     private void updateButtons() {
-        this.waystoneButtons.clear();
+        ensureRowPool();
+        updateScrollbar();
+        rekeyRows();
+    }
+    
+    /**
+     * Keyed diff after the view changed: a pooled button that already shows a waystone still visible in the new
+     * view is moved to the slot of that waystone's new row, so only rows that entered the viewport get a new
+     * label. Rows that left are simply rebound when their slot is next needed. The work is bounded by the pool
+     * size, not the number of waystones.
+     */
+    private void rekeyRows() {
+        int poolSize = rowPool.size();
+        int lastRow = lastVisibleRow();
+        for (int row = firstVisibleRow(); row <= lastRow; row++) {
+            int slot = row % poolSize;
+            int id = view[row];
+            if (rowPoolId[slot] == id) {
+                continue;
+            }
+            for (int other = 0; other < poolSize; other++) {
+                if (rowPoolId[other] == id) {
+                    swapSlots(slot, other);
+                    break;
+                }
+            }
+        }
         
-        for (int i = 0; i < waystones.size(); i++) {
-            final WaystoneData waystone = waystones.get(i);
-            
-            Button button = Button.builder(
-                Component.literal(waystone.getName() + " - " + waystone.getDimensionName()),
-                btn -> onWaystoneSelected.accept(waystone)
-            ).bounds(0, 0, this.width - SCROLLBAR_WIDTH - 4, BUTTON_HEIGHT).build();
-            
-            waystoneButtons.add(button);
+        // Row indices are rebound as rows are placed
+        Arrays.fill(rowPoolIndex, -1);
+    }
+    
+    private void swapSlots(int a, int b) {
+        rowPool.set(a, rowPool.set(b, rowPool.get(a)));
+        int id = rowPoolId[a];
+        rowPoolId[a] = rowPoolId[b];
+        rowPoolId[b] = id;
+    }
+    
+    /**
+     * Size the row pool to the most rows that can intersect the viewport at once (a partially
+     * visible row at both edges), so the widget count is independent of the waystone count.
+     */
+    private void ensureRowPool() {
+        int poolSize = this.height / ROW_PITCH + 2;
+        if (rowPool.size() == poolSize) {
+            return;
         }
         
-        updateScrollbar();
+        rowPool.clear();
+        rowPoolIndex = new int[poolSize];
+        rowPoolId = new int[poolSize];
+        Arrays.fill(rowPoolIndex, -1);
+        Arrays.fill(rowPoolId, -1);
+        
+        for (int slot = 0; slot < poolSize; slot++) {
+            // Buttons move between slots when the view changes, so look the slot up at press time
+            rowPool.add(createRowButton(btn -> selectRow(rowPoolIndex[rowPool.indexOf(btn)])));
+        }
+        
+        if (dragRow == null) {
+            dragRow = createRowButton(btn -> {});
+        }
+    }
+    
+    private Button createRowButton(Button.OnPress onPress) {
+        return Button.builder(Component.empty(), onPress)
+            .bounds(0, 0, this.width - SCROLLBAR_WIDTH - 4, BUTTON_HEIGHT)
+            .build();
+    }
+    
+    /**
+     * Get the pooled button for a row, rebinding its label only when the slot last showed a different waystone.
+     */
+    private Button rowButton(int index) {
+        int slot = index % rowPool.size();
+        Button button = rowPool.get(slot);
+        rowPoolIndex[slot] = index;
+        int id = view[index];
+        if (rowPoolId[slot] != id) {
+            rowPoolId[slot] = id;
+            button.setMessage(rowLabel(id));
+        }
+        return button;
+    }
+    
+    /**
+     * Bind and position the pooled button for a visible row (the per-row layout work of a frame).
+     */
+    Button placeRow(int index) {
+        Button button = rowButton(index);
+        button.setX(this.getX() + 2);
+        button.setY(this.getY() - (int) scrollOffset + index * ROW_PITCH);
+        return button;
+    }
+    
+    private Component rowLabel(int id) {
+        return Component.literal(directory.name(id) + " - " + directory.dimensionName(id));
+    }
+    
+    private void selectRow(int index) {
+        if (index >= 0 && index < view.length) {
+            onWaystoneSelected.accept(directory.get(view[index]));
+        }
+    }
+    
+    int firstVisibleRow() {
+        return Math.max(0, (int) scrollOffset / ROW_PITCH);
+    }
+    
+    int lastVisibleRow() {
+        return Math.min(view.length - 1, ((int) scrollOffset + this.height) / ROW_PITCH);
+    }
+    
+    /**
+     * Row under the mouse, from the mouse Y and the row pitch; -1 outside the rows (or in the gap between two).
+     */
+    int rowAt(double mouseX, double mouseY) {
+        int left = this.getX() + 2;
+        if (mouseX < left || mouseX >= left + this.width - SCROLLBAR_WIDTH - 4
+                || mouseY < this.getY() || mouseY >= this.getY() + this.height) {
+            return -1;
+        }
+        int contentY = (int) Math.floor(mouseY) - this.getY() + (int) scrollOffset;
+        int row = contentY / ROW_PITCH;
+        if (row >= view.length || contentY % ROW_PITCH >= BUTTON_HEIGHT) {
+            return -1;
+        }
+        return row;
     }
     
     private void updateScrollbar() {
-        int totalContentHeight = waystones.size() * (BUTTON_HEIGHT + BUTTON_SPACING);
+        int totalContentHeight = view.length * ROW_PITCH;
         maxScroll = Math.max(0, totalContentHeight - this.height);
         
         // Clamp scroll offset
@@ -92,22 +264,27 @@ public class ScrollableWaystoneList extends AbstractWidget {
         // Draw background
         graphics.fill(this.getX(), this.getY(), this.getX() + this.width, this.getY() + this.height, 0xCC000000);
         
+        if (loading) {
+            renderSkeleton(graphics);
+            return;
+        }
+        
         // Track hovered waystone for tooltips
-        hoveredIndex = -1;
+        hoveredIndex = rowAt(mouseX, mouseY);
         
         // Enable scissor (viewport clipping)
         enableScissor(graphics, this.getX(), this.getY(), this.width - SCROLLBAR_WIDTH - 2, this.height);
         
-        // Render visible waystone buttons
+        // Render only the rows intersecting the viewport
         int currentY = this.getY() - (int) scrollOffset;
+        int lastRow = lastVisibleRow();
         
-        for (int i = 0; i < waystoneButtons.size(); i++) {
+        for (int i = firstVisibleRow(); i <= lastRow; i++) {
             if (i == draggedIndex) {
                 continue; // Skip dragged button (render it last on top)
             }
             
-            Button button = waystoneButtons.get(i);
-            int buttonY = currentY + i * (BUTTON_HEIGHT + BUTTON_SPACING);
+            int buttonY = currentY + i * ROW_PITCH;
             
             // Show drop indicator
             if (dropTargetIndex == i && draggedIndex >= 0) {
@@ -120,25 +297,15 @@ public class ScrollableWaystoneList extends AbstractWidget {
                 );
             }
             
-            // Only render if visible in viewport
-            if (buttonY + BUTTON_HEIGHT >= this.getY() && buttonY < this.getY() + this.height) {
-                button.setX(this.getX() + 2);
-                button.setY(buttonY);
-                button.render(graphics, mouseX, mouseY, partialTick);
-                
-                // Track if hovering this button
-                if (button.isMouseOver(mouseX, mouseY)) {
-                    hoveredIndex = i;
-                }
-            }
+            placeRow(i).render(graphics, mouseX, mouseY, partialTick);
         }
         
         // Render dragged button on top with transparency
-        if (draggedIndex >= 0 && draggedIndex < waystoneButtons.size()) {
+        if (draggedIndex >= 0 && draggedIndex < view.length) {
             graphics.pose().pushPose();
             graphics.pose().translate(0, 0, 100); // Higher Z-index
             
-            Button draggedButton = waystoneButtons.get(draggedIndex);
+            Button draggedButton = dragRow;
             draggedButton.setX(this.getX() + 2);
             draggedButton.setY((int) draggedButtonY);
             
@@ -159,8 +326,8 @@ public class ScrollableWaystoneList extends AbstractWidget {
         }
         
         // Render tooltip if hovering and CTRL held (Phase 6)
-        if (hoveredIndex >= 0 && hoveredIndex < waystones.size() && Screen.hasControlDown()) {
-            WaystoneData waystone = waystones.get(hoveredIndex);
+        if (hoveredIndex >= 0 && hoveredIndex < view.length && Screen.hasControlDown()) {
+            WaystoneData waystone = tooltipWaystone(view[hoveredIndex]);
             Minecraft mc = Minecraft.getInstance();
             
             if (mc.player != null) {
@@ -175,6 +342,32 @@ public class ScrollableWaystoneList extends AbstractWidget {
         }
     }
     
+    /**
+     * The hovered waystone for the tooltip, materialized once per hovered row rather than every frame.
+     */
+    private WaystoneData tooltipWaystone(int id) {
+        if (tooltipId != id) {
+            tooltipId = id;
+            tooltipWaystone = directory.get(id);
+        }
+        return tooltipWaystone;
+    }
+    
+    /**
+     * Placeholder rows with a slow pulse, staggered down the list, while the waystones load.
+     */
+    private void renderSkeleton(GuiGraphics graphics) {
+        int rows = Math.max(1, this.height / ROW_PITCH);
+        double phase = System.currentTimeMillis() / SKELETON_PULSE_MS * Math.PI;
+        for (int i = 0; i < rows; i++) {
+            int alpha = 0x30 + (int) (0x30 * (0.5 + 0.5 * Math.sin(phase - i * 0.5)));
+            int rowY = this.getY() + i * ROW_PITCH;
+            // Vary the bar length a little so it reads as a list of names
+            int barWidth = (this.width - SCROLLBAR_WIDTH - 4) * (70 + (i * 37) % 30) / 100;
+            graphics.fill(this.getX() + 2, rowY, this.getX() + 2 + barWidth, rowY + BUTTON_HEIGHT, alpha << 24 | SKELETON_COLOR);
+        }
+    }
+    
     private void renderScrollbar(GuiGraphics graphics, int mouseX, int mouseY) {
         int scrollbarX = this.getX() + this.width - SCROLLBAR_WIDTH - 1;
         int scrollbarY = this.getY();
@@ -197,7 +390,7 @@ public class ScrollableWaystoneList extends AbstractWidget {
     
     @Override
     public boolean mouseClicked(double mouseX, double mouseY, int button) {
-        if (!this.isMouseOver(mouseX, mouseY)) {
+        if (loading || !this.isMouseOver(mouseX, mouseY)) {
             return false;
         }
         
@@ -212,37 +405,25 @@ public class ScrollableWaystoneList extends AbstractWidget {
             }
         }
         
-        // Check if clicking on a waystone button
-        int currentY = this.getY() - (int) scrollOffset;
+        // Check if clicking on a waystone row
+        int row = rowAt(mouseX, mouseY);
+        if (row < 0) {
+            return false;
+        }
+        Button btn = placeRow(row);
         
-        for (int i = 0; i < waystoneButtons.size(); i++) {
-            Button btn = waystoneButtons.get(i);
-            int buttonY = currentY + i * (BUTTON_HEIGHT + BUTTON_SPACING);
-            
-            // Only check visible buttons
-            if (buttonY + BUTTON_HEIGHT >= this.getY() && buttonY < this.getY() + this.height) {
-                btn.setX(this.getX() + 2);
-                btn.setY(buttonY);
-                
-                if (btn.isMouseOver(mouseX, mouseY)) {
-                    // Left click + SHIFT = start drag (Phase 5)
-                    if (button == 0 && Screen.hasShiftDown()) {
-                        draggedIndex = i;
-                        draggedButtonY = buttonY;
-                        dragStartY = mouseY;
-                        System.out.println("[WaystoneInjector] Started dragging waystone: " + waystones.get(i).getName());
-                        return true;
-                    }
-                    
-                    // Normal click = select waystone
-                    if (btn.mouseClicked(mouseX, mouseY, button)) {
-                        return true;
-                    }
-                }
-            }
+        // Left click + SHIFT = start drag (Phase 5)
+        if (button == 0 && reorderEnabled && Screen.hasShiftDown()) {
+            draggedIndex = row;
+            draggedButtonY = btn.getY();
+            dragStartY = mouseY;
+            dragRow.setMessage(btn.getMessage());
+            System.out.println("[WaystoneInjector] Started dragging waystone: " + directory.name(view[row]));
+            return true;
         }
         
-        return false;
+        // Normal click = select waystone
+        return btn.mouseClicked(mouseX, mouseY, button);
     }
     
     @Override
@@ -255,15 +436,26 @@ public class ScrollableWaystoneList extends AbstractWidget {
         // Handle drag-and-drop release (Phase 5)
         if (draggedIndex >= 0) {
             if (dropTargetIndex >= 0 && dropTargetIndex != draggedIndex) {
-                // Swap waystones
-                WaystoneData draggedWaystone = waystones.remove(draggedIndex);
-                waystones.add(dropTargetIndex, draggedWaystone);
+                // The caller's array is shared (e.g. with the search index); copy it once, then move in place
+                if (!viewOwned) {
+                    view = view.clone();
+                    viewOwned = true;
+                }
+                
+                // Move the dragged id, shifting only the rows in between by one
+                int moved = view[draggedIndex];
+                if (draggedIndex < dropTargetIndex) {
+                    System.arraycopy(view, draggedIndex + 1, view, draggedIndex, dropTargetIndex - draggedIndex);
+                } else {
+                    System.arraycopy(view, dropTargetIndex, view, dropTargetIndex + 1, draggedIndex - dropTargetIndex);
+                }
+                view[dropTargetIndex] = moved;
                 
-                System.out.println("[WaystoneInjector] Reordered: " + draggedWaystone.getName() + 
+                System.out.println("[WaystoneInjector] Reordered: " + directory.name(moved) + 
                                    " from index " + draggedIndex + " to " + dropTargetIndex);
                 
-                // Save new order
-                WaystoneOrderManager.saveWaystoneOrder(waystones);
+                // Record the move relative to the row now above it
+                WaystoneOrderManager.moveWaystone(directory, moved, dropTargetIndex > 0 ? view[dropTargetIndex - 1] : -1);
                 
                 // Update buttons
                 updateButtons();
@@ -300,12 +492,12 @@ public class ScrollableWaystoneList extends AbstractWidget {
         if (draggedIndex >= 0) {
             double deltaY = mouseY - dragStartY;
             int currentY = this.getY() - (int) scrollOffset;
-            draggedButtonY = currentY + draggedIndex * (BUTTON_HEIGHT + BUTTON_SPACING) + deltaY;
+            draggedButtonY = currentY + draggedIndex * ROW_PITCH + deltaY;
             
-            // Calculate drop target index
-            int relativeY = (int) (draggedButtonY - currentY + (BUTTON_HEIGHT + BUTTON_SPACING) / 2);
-            dropTargetIndex = relativeY / (BUTTON_HEIGHT + BUTTON_SPACING);
-            dropTargetIndex = Math.max(0, Math.min(dropTargetIndex, waystones.size() - 1));
+            // Drop target: the row slot nearest the dragged button's top edge
+            int relativeY = (int) Math.floor(draggedButtonY - currentY) + ROW_PITCH / 2;
+            dropTargetIndex = Math.floorDiv(relativeY, ROW_PITCH);
+            dropTargetIndex = Math.max(0, Math.min(dropTargetIndex, view.length - 1));
             
             return true;
         }
@@ -321,7 +513,7 @@ public class ScrollableWaystoneList extends AbstractWidget {
         
         if (maxScroll > 0) {
             // Scroll speed: 3 buttons per scroll
-            double scrollSpeed = (BUTTON_HEIGHT + BUTTON_SPACING) * 3;
+            double scrollSpeed = ROW_PITCH * 3;
             scrollOffset -= delta * scrollSpeed;
             scrollOffset = Math.max(0, Math.min(scrollOffset, maxScroll));
             return true;
@@ -352,6 +544,6 @@ public class ScrollableWaystoneList extends AbstractWidget {
     @Override
     protected void updateWidgetNarration(NarrationElementOutput output) {
         output.add(net.minecraft.client.gui.narration.NarratedElementType.TITLE, 
-                   Component.literal("Waystone list with " + waystones.size() + " waystones"));
+                   Component.literal("Waystone list with " + view.length + " waystones"));
     }
 }
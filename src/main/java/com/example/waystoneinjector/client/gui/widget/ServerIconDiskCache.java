@@ -0,0 +1,151 @@
+package com.example.waystoneinjector.client.gui.widget;
+
+import com.example.waystoneinjector.client.BackgroundIo;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import com.mojang.logging.LogUtils;
+import org.slf4j.Logger;
+
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server favicons kept on disk between sessions, so button icons show up on the first frame even for servers
+ * that haven't been pinged (or sent their icon) yet this session.
+ *
+ * Icons are content-addressed: config/waystoneinjector/server_icons/&lt;sha1 of the PNG&gt;.png, with index.json
+ * mapping each server to its current icon. Servers are indexed by the SHA-1 of their normalized address, so the
+ * file doesn't list the addresses themselves. Servers sharing an icon share the file; icons no longer referenced
+ * are deleted when the index is loaded.
+ *
+ * Everything except {@link #loadAsync} and {@link #iconHash} runs on the {@link BackgroundIo} thread. The index is
+ * read there at client setup, before any lookup can be queued behind it.
+ */
+public final class ServerIconDiskCache {
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final long SAVE_DELAY_MS = 2000L;
+    private static final int MAX_ICON_BYTES = 128 * 1024;
+
+    // sha1(normalized address) -> sha1(png)
+    private static final Map<String, String> INDEX = new ConcurrentHashMap<>();
+    private static volatile Path directory;
+
+    private ServerIconDiskCache() {
+    }
+
+    /**
+     * Start reading the index from the config directory on the background I/O thread.
+     */
+    public static void loadAsync(Path configDir) {
+        directory = configDir.resolve("waystoneinjector").resolve("server_icons");
+        BackgroundIo.execute(ServerIconDiskCache::load);
+    }
+
+    /**
+     * SHA-1 of the icon stored for a server, or null. Safe to call from any thread.
+     */
+    public static String iconHash(String addressKey) {
+        return INDEX.get(ServerIconLoader.sha1Hex(addressKey));
+    }
+
+    /**
+     * The last icon stored for a server, or null if there is none (or the file is gone or corrupt).
+     */
+    static byte[] read(String addressKey) {
+        String iconHash = iconHash(addressKey);
+        return iconHash != null ? readIcon(iconHash) : null;
+    }
+
+    /**
+     * Stored icon with the given SHA-1, or null if there is none (or the file is gone or corrupt).
+     */
+    public static byte[] readIcon(String iconHash) {
+        Path dir = directory;
+        if (dir == null || !isSha1Hex(iconHash)) return null;
+        try {
+            Path file = dir.resolve(iconHash + ".png");
+            if (!Files.isRegularFile(file) || Files.size(file) > MAX_ICON_BYTES) return null;
+            byte[] png = Files.readAllBytes(file);
+            return iconHash.equals(ServerIconLoader.sha1Hex(png)) ? png : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Remember {@code png} as the server's icon.
+     * @return false if it already was the stored icon
+     */
+    public static boolean store(String addressKey, byte[] png) {
+        Path dir = directory;
+        if (dir == null || png.length > MAX_ICON_BYTES) return true;
+
+        String iconHash = ServerIconLoader.sha1Hex(png);
+        if (iconHash.equals(INDEX.get(ServerIconLoader.sha1Hex(addressKey)))) {
+            return false;
+        }
+        try {
+            Path file = dir.resolve(iconHash + ".png");
+            if (!Files.isRegularFile(file)) {
+                BackgroundIo.writeAtomically(file, png);
+            }
+            INDEX.put(ServerIconLoader.sha1Hex(addressKey), iconHash);
+            BackgroundIo.scheduleWrite(dir.resolve("index.json"), () -> GSON.toJson(new TreeMap<>(INDEX)), SAVE_DELAY_MS);
+        } catch (Exception e) {
+            LOGGER.warn("Failed to cache server icon: {}", e.getMessage());
+        }
+        return true;
+    }
+
+    private static boolean isSha1Hex(String value) {
+        if (value == null || value.length() != 40) return false;
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.digit(value.charAt(i), 16) < 0) return false;
+        }
+        return true;
+    }
+
+    private static void load() {
+        Path dir = directory;
+        Path indexFile = dir.resolve("index.json");
+        if (!Files.exists(indexFile)) return;
+
+        try (Reader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+            Type type = new TypeToken<Map<String, String>>(){}.getType();
+            Map<String, String> fromFile = GSON.fromJson(reader, type);
+            if (fromFile != null) {
+                fromFile.forEach(INDEX::putIfAbsent);
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Failed to load server icon cache index: {}", e.getMessage());
+            return;
+        }
+
+        // Drop icons no server points at any more
+        Set<String> referenced = new HashSet<>(INDEX.values());
+        try (DirectoryStream<Path> icons = Files.newDirectoryStream(dir, "*.png")) {
+            for (Path icon : icons) {
+                String name = icon.getFileName().toString();
+                if (!referenced.contains(name.substring(0, name.length() - ".png".length()))) {
+                    Files.deleteIfExists(icon);
+                }
+            }
+        } catch (Exception e) {
+            LOGGER.debug("Server icon cache cleanup skipped: {}", e.getMessage());
+        }
+        LOGGER.debug("Loaded {} cached server icons", referenced.size());
+    }
+}
@@ -0,0 +1,293 @@
+package com.example.waystoneinjector.client.gui.widget;
+
+import com.example.waystoneinjector.client.BackgroundIo;
+import com.example.waystoneinjector.client.ServerDirectory;
+import com.example.waystoneinjector.client.serverside.ServerIconCache;
+import com.mojang.blaze3d.platform.NativeImage;
+import com.mojang.logging.LogUtils;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ServerData;
+import net.minecraft.client.renderer.texture.DynamicTexture;
+import net.minecraft.resources.ResourceLocation;
+import org.slf4j.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Server favicons for {@link ThemedButton}s, keyed by normalized server address.
+ *
+ * The expensive part of a lookup (reading servers.dat, base64 and PNG decoding) runs on the I/O thread.
+ * The render thread only snapshots the current connection's server data when a lookup starts, and registers
+ * the decoded image as a texture (the GPU upload) once it is ready. Until then {@link #icon} returns null
+ * and the button draws its default background.
+ *
+ * The icon remembered in {@link ServerIconDiskCache} is shown first; if the live sources then yield a different
+ * icon, it replaces the texture and the disk cache. Icons that couldn't be found anywhere are looked up again
+ * when the server mod sends new icon bytes, or after {@link #RETRY_MS} (servers.dat gains favicons when the
+ * multiplayer screen pings a server).
+ */
+@SuppressWarnings("null")
+final class ServerIconLoader {
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private static final long RETRY_MS = 30_000L;
+
+    private static final Map<String, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+    private ServerIconLoader() {
+    }
+
+    /**
+     * Render thread: the icon texture for {@code serverAddress}, or null while it is loading or if there is none.
+     */
+    static ResourceLocation icon(String serverAddress) {
+        if (serverAddress == null || serverAddress.isEmpty()) {
+            return null;
+        }
+
+        String key = ServerDirectory.normalize(serverAddress);
+        Entry entry = ENTRIES.get(key);
+        if (entry == null || entry.isStale()) {
+            entry = startLookup(key);
+        }
+        NativeImage decoded = entry.decoded.getAndSet(null);
+        if (decoded != null) {
+            ResourceLocation texture = register(key, decoded);
+            if (texture != null) {
+                entry.texture = texture;
+            }
+        }
+        return entry.texture;
+    }
+
+    private static Entry startLookup(String key) {
+        // Snapshot what the connection knows on the render thread; the I/O thread only sees these values
+        String currentIp = null;
+        String currentIconB64 = null;
+        ServerData current = tryGetActiveServerData(Minecraft.getInstance());
+        if (current != null) {
+            currentIp = current.ip;
+            currentIconB64 = getServerIconB64(current);
+        }
+        byte[] serverProvided = ServerIconCache.get(key);
+
+        Entry entry = new Entry(ServerIconCache.version());
+        ENTRIES.put(key, entry);
+        String ip = currentIp;
+        String iconB64 = currentIconB64;
+        BackgroundIo.execute(() -> lookup(key, entry, ip, iconB64, serverProvided));
+        return entry;
+    }
+
+    /**
+     * I/O thread: find and decode the icon. The disk cache goes first since it needs no servers.dat read, then the
+     * live sources: icon bytes the server mod sent for this server (this session, on any hop), the current server's
+     * favicon when the target is the server we're on, then the saved server list.
+     */
+    private static void lookup(String key, Entry entry, String currentIp, String currentIconB64, byte[] serverProvided) {
+        String keyHash = sha1Hex(key);
+        String reason = "no matching server entry";
+
+        NativeImage cached = decodeFavicon(ServerIconDiskCache.read(key));
+        if (cached != null) {
+            entry.publish(cached);
+        }
+
+        try {
+            // Prefer server-provided icon bytes (works even if the server isn't in the local server list).
+            byte[] live = firstDecodable(serverProvided);
+            if (live == null && currentIp != null) {
+                String currentNorm = ServerDirectory.normalize(currentIp);
+                String targetHost = ServerDirectory.hostPart(key);
+                if (!currentNorm.isEmpty() && !targetHost.isEmpty() && targetHost.equalsIgnoreCase(ServerDirectory.hostPart(currentNorm))) {
+                    live = firstDecodable(base64Png(currentIconB64));
+                    if (live == null) {
+                        LOGGER.debug("Server icon unavailable for current server (keyHash={})", keyHash);
+                    }
+                }
+            }
+
+            if (live == null) {
+                ServerData match = ServerDirectory.find(key);
+                if (match != null) {
+                    live = firstDecodable(base64Png(getServerIconB64(match)));
+                    reason = "missing/invalid favicon data";
+                }
+            }
+
+            if (live != null && ServerIconDiskCache.store(key, live)) {
+                NativeImage image = decodeFavicon(live);
+                if (image != null) {
+                    entry.publish(image);
+                }
+            }
+        } catch (Exception e) {
+            // Never log server addresses; include only a hashed key.
+            reason = "unexpected " + e.getClass().getSimpleName();
+        }
+
+        if (entry.state == Entry.PENDING) {
+            entry.finishedAt = System.currentTimeMillis();
+            entry.state = Entry.MISSING;
+            LOGGER.debug("Server icon unavailable: {} (keyHash={})", reason, keyHash);
+        }
+    }
+
+    private static ResourceLocation register(String key, NativeImage image) {
+        try {
+            ResourceLocation iconId = new ResourceLocation("waystoneinjector", "server_icons/" + sha1Hex(key));
+            Minecraft.getInstance().getTextureManager().register(iconId, new DynamicTexture(image));
+            return iconId;
+        } catch (Exception e) {
+            image.close();
+            LOGGER.warn("Server icon upload failed (keyHash={})", sha1Hex(key));
+            return null;
+        }
+    }
+
+    private static byte[] base64Png(String iconB64) {
+        if (iconB64 == null || iconB64.isBlank()) {
+            return null;
+        }
+        try {
+            // Stored value may be raw base64 or a data URL.
+            String b64 = iconB64;
+            int comma = b64.indexOf(',');
+            if (comma >= 0) {
+                b64 = b64.substring(comma + 1);
+            }
+            return Base64.getDecoder().decode(b64);
+        } catch (IllegalArgumentException ignored) {
+            return null;
+        }
+    }
+
+    /**
+     * The first candidate that decodes to a valid favicon.
+     */
+    private static byte[] firstDecodable(byte[]... candidates) {
+        for (byte[] candidate : candidates) {
+            NativeImage image = decodeFavicon(candidate);
+            if (image != null) {
+                image.close();
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static NativeImage decodeFavicon(byte[] pngBytes) {
+        if (pngBytes == null || pngBytes.length == 0) {
+            return null;
+        }
+        try {
+            NativeImage image;
+            try (ByteArrayInputStream in = new ByteArrayInputStream(pngBytes)) {
+                image = NativeImage.read(in);
+            }
+
+            // Vanilla expects 64x64 favicons. If it's some other size, just skip.
+            if (image.getWidth() != 64 || image.getHeight() != 64) {
+                image.close();
+                return null;
+            }
+            return image;
+        } catch (Exception ignored) {
+            return null;
+        }
+    }
+
+    static String sha1Hex(String value) {
+        return sha1Hex(value.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+    }
+
+    static String sha1Hex(byte[] value) {
+        return ServerIconCache.sha1Hex(value);
+    }
+
+    private static String getServerIconB64(ServerData serverData) {
+        // Keep this reflection-based so we don't depend on a specific SRG/mapped name.
+        // Most environments expose getIconB64(), but if not, fall back to a field lookup.
+        try {
+            Object icon = serverData.getClass().getMethod("getIconB64").invoke(serverData);
+            return icon instanceof String ? (String) icon : "";
+        } catch (Exception ignored) {
+        }
+        try {
+            // Some mappings may name it differently; try a generic getter.
+            Object icon = serverData.getClass().getMethod("getIcon").invoke(serverData);
+            return icon instanceof String ? (String) icon : "";
+        } catch (Exception ignored) {
+        }
+        try {
+            var field = serverData.getClass().getDeclaredField("iconB64");
+            field.setAccessible(true);
+            Object icon = field.get(serverData);
+            return icon instanceof String ? (String) icon : "";
+        } catch (Exception ignored) {
+        }
+        try {
+            var field = serverData.getClass().getDeclaredField("icon");
+            field.setAccessible(true);
+            Object icon = field.get(serverData);
+            return icon instanceof String ? (String) icon : "";
+        } catch (Exception ignored) {
+        }
+        return "";
+    }
+
+    private static ServerData tryGetActiveServerData(Minecraft mc) {
+        // Prefer the official accessor.
+        ServerData current = mc.getCurrentServer();
+        if (current != null) return current;
+
+        // Some join paths (e.g. Direct Connect) may not populate getCurrentServer();
+        // attempt to reflectively ask the connection for ServerData.
+        var conn = mc.getConnection();
+        if (conn == null) return null;
+        try {
+            Object sd = conn.getClass().getMethod("getServerData").invoke(conn);
+            return sd instanceof ServerData ? (ServerData) sd : null;
+        } catch (Exception ignored) {
+            return null;
+        }
+    }
+
+    /**
+     * One lookup. Decoded images are handed from the I/O thread to the render thread through {@code decoded}
+     * (a newer one replaces one that wasn't uploaded yet); {@code texture} is render thread only.
+     */
+    private static final class Entry {
+        static final int PENDING = 0;
+        static final int FOUND = 1;
+        static final int MISSING = 2;
+
+        final int iconVersion;
+        final AtomicReference<NativeImage> decoded = new AtomicReference<>();
+        volatile long finishedAt;
+        volatile int state = PENDING;
+        ResourceLocation texture;
+
+        Entry(int iconVersion) {
+            this.iconVersion = iconVersion;
+        }
+
+        void publish(NativeImage image) {
+            NativeImage replaced = decoded.getAndSet(image);
+            if (replaced != null) {
+                replaced.close();
+            }
+            state = FOUND;
+        }
+
+        boolean isStale() {
+            return state == MISSING
+                && (iconVersion != ServerIconCache.version() || System.currentTimeMillis() - finishedAt > RETRY_MS);
+        }
+    }
+}
@@ -9,11 +9,16 @@ import java.util.function.Consumer;
 /**
  * Enhanced text field for waystone search
  * Phase 4: Search box with right-click clear and real-time filtering
+ *
+ * Edits are debounced: insert/delete/setValue only mark the search dirty, and the owning screen's
+ * tick delivers the latest value once, so a paste or a burst of typing costs one filter pass.
  */
 @SuppressWarnings("null")
 public class WaystoneSearchField extends EditBox {
     
     private Consumer<String> onSearchChanged;
+    private boolean searchPending;
+    private String lastNotifiedValue = "";
     
     public WaystoneSearchField(Font font, int x, int y, int width, int height) {
         super(font, x, y, width, height, Component.literal("Search waystones..."));
@@ -29,9 +34,6 @@ public class WaystoneSearchField extends EditBox {
         // Right-click to clear
         if (button == 1 && this.isMouseOver(mouseX, mouseY)) {
             this.setValue("");
-            if (onSearchChanged != null) {
-                onSearchChanged.accept("");
-            }
             return true;
         }
         
@@ -56,9 +58,33 @@ public class WaystoneSearchField extends EditBox {
         notifySearchChanged();
     }
     
-    private void notifySearchChanged() {
+    @Override
+    public void tick() {
+        super.tick();
+        flushPendingSearch();
+    }
+    
+    /**
+     * Deliver the current value if it changed since the last delivery. Called once per client tick.
+     */
+    public void flushPendingSearch() {
+        if (!searchPending) {
+            return;
+        }
+        searchPending = false;
+        
+        String value = this.getValue();
+        if (value.equals(lastNotifiedValue)) {
+            return;
+        }
+        lastNotifiedValue = value;
+        
         if (onSearchChanged != null) {
-            onSearchChanged.accept(this.getValue());
+            onSearchChanged.accept(value);
         }
     }
+    
+    private void notifySearchChanged() {
+        searchPending = true;
+    }
 }
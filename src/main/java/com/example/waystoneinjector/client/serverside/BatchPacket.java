@@ -0,0 +1,72 @@
+package com.example.waystoneinjector.client.serverside;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Envelope carrying several sub-messages in one packet, both directions (once both sides negotiated
+ * {@link ServerSideNetwork#CAP_BATCH}).
+ *
+ * Each sub-message is a type name plus a length-prefixed payload, so a receiver skips types it doesn't know
+ * instead of failing to decode the rest of the packet.
+ */
+public record BatchPacket(List<Entry> entries) {
+
+    private static final int MAX_ENTRIES = 256;
+    private static final int MAX_TYPE_LENGTH = 64;
+    private static final int MAX_PAYLOAD_BYTES = 192 * 1024;
+
+    public record Entry(String type, byte[] payload) {
+
+        public static Entry of(String type, Consumer<FriendlyByteBuf> writer) {
+            FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+            try {
+                writer.accept(buf);
+                byte[] payload = new byte[buf.readableBytes()];
+                buf.readBytes(payload);
+                return new Entry(type, payload);
+            } finally {
+                buf.release();
+            }
+        }
+
+        public FriendlyByteBuf reader() {
+            return new FriendlyByteBuf(Unpooled.wrappedBuffer(payload));
+        }
+    }
+
+    public static void encode(BatchPacket msg, FriendlyByteBuf buf) {
+        int count = Math.min(msg.entries.size(), MAX_ENTRIES);
+        buf.writeVarInt(count);
+        for (int i = 0; i < count; i++) {
+            Entry entry = msg.entries.get(i);
+            buf.writeUtf(entry.type, MAX_TYPE_LENGTH);
+            buf.writeByteArray(entry.payload);
+        }
+    }
+
+    public static BatchPacket decode(FriendlyByteBuf buf) {
+        int count = Math.min(buf.readVarInt(), MAX_ENTRIES);
+        List<Entry> entries = new ArrayList<>(Math.max(count, 0));
+        for (int i = 0; i < count; i++) {
+            String type = buf.readUtf(MAX_TYPE_LENGTH);
+            entries.add(new Entry(type, buf.readByteArray(MAX_PAYLOAD_BYTES)));
+        }
+        return new BatchPacket(entries);
+    }
+
+    public static void handle(BatchPacket msg, Supplier<NetworkEvent.Context> ctx) {
+        ctx.get().enqueueWork(() -> {
+            for (Entry entry : msg.entries) {
+                ServerSideNetwork.dispatch(entry);
+            }
+        });
+        ctx.get().setPacketHandled(true);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.waystoneinjector.client.serverside;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Capability negotiation, both directions. The client sends its protocol version and capabilities right after
+ * login; the server answers with its own. Features are only used when both sides list them, so either side can
+ * add one without a protocol break.
+ */
+public record HelloPacket(int protocol, List<String> capabilities) {
+
+    private static final int MAX_CAPABILITIES = 64;
+    private static final int MAX_NAME_LENGTH = 64;
+
+    public static void encode(HelloPacket msg, FriendlyByteBuf buf) {
+        buf.writeVarInt(msg.protocol);
+        int count = Math.min(msg.capabilities.size(), MAX_CAPABILITIES);
+        buf.writeVarInt(count);
+        for (int i = 0; i < count; i++) {
+            buf.writeUtf(msg.capabilities.get(i), MAX_NAME_LENGTH);
+        }
+    }
+
+    public static HelloPacket decode(FriendlyByteBuf buf) {
+        int protocol = buf.readVarInt();
+        int count = Math.min(buf.readVarInt(), MAX_CAPABILITIES);
+        List<String> capabilities = new ArrayList<>(Math.max(count, 0));
+        for (int i = 0; i < count; i++) {
+            capabilities.add(buf.readUtf(MAX_NAME_LENGTH));
+        }
+        return new HelloPacket(protocol, capabilities);
+    }
+
+    public static void handle(HelloPacket msg, Supplier<NetworkEvent.Context> ctx) {
+        ctx.get().enqueueWork(() -> ServerSideNetwork.onServerHello(msg));
+        ctx.get().setPacketHandled(true);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.waystoneinjector.client.serverside;
+
+import net.minecraft.network.FriendlyByteBuf;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Client -> Server: SHA-1 hashes of the icons we already hold for this server, sent once the server answered
+ * our {@link HelloPacket} with {@link ServerSideNetwork#CAP_ICON_REF} (as a batch sub-message when batching is on).
+ *
+ * A server that knows its icon's hash replies with {@link ServerIconRefS2CPacket} when the hash is in the list,
+ * and with the full {@link ServerIconS2CPacket} otherwise. An empty list asks for the bytes unconditionally.
+ */
+public record KnownIconsC2SPacket(List<String> hashes) {
+
+    private static final int MAX_HASHES = 8;
+    private static final int HASH_LENGTH = 40;
+
+    public static void encode(KnownIconsC2SPacket msg, FriendlyByteBuf buf) {
+        int count = Math.min(msg.hashes.size(), MAX_HASHES);
+        buf.writeVarInt(count);
+        for (int i = 0; i < count; i++) {
+            buf.writeUtf(msg.hashes.get(i), HASH_LENGTH);
+        }
+    }
+
+    public static KnownIconsC2SPacket decode(FriendlyByteBuf buf) {
+        int count = Math.min(buf.readVarInt(), MAX_HASHES);
+        List<String> hashes = new ArrayList<>(Math.max(count, 0));
+        for (int i = 0; i < count; i++) {
+            hashes.add(buf.readUtf(HASH_LENGTH));
+        }
+        return new KnownIconsC2SPacket(hashes);
+    }
+}
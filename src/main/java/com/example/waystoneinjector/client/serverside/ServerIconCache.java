@@ -1,24 +1,128 @@
 package com.example.waystoneinjector.client.serverside;
 
+import com.example.waystoneinjector.client.ServerDirectory;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ServerData;
+
+import java.security.MessageDigest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Client-side cache for the server icon bytes.
  *
  * The server mod sends server-icon.png bytes to modded clients. This cache exists so
  * other client features (future UI, buttons, overlays) can use it without needing
  * direct dependencies on the server mod.
+ *
+ * Icons are kept per server (keyed by the {@link ServerDirectory#normalize normalized} address we connected to),
+ * so hopping between servers on a network keeps the icons seen this session. Each server holds its latest icon
+ * only, and the {@value #MAX_SERVERS} most recently used servers are kept. The SHA-1 of each icon's bytes is
+ * stored with it; {@link #byHash} scans for it, and it is what the icon handshake in {@link ServerSideNetwork}
+ * refers to.
  */
 public final class ServerIconCache {
 
-    private static volatile byte[] lastPngBytes;
+    private static final int MAX_SERVERS = 32;
+
+    // Least recently used first; guarded by the class lock
+    private static final LinkedHashMap<String, Icon> BY_SERVER = new LinkedHashMap<>(16, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Icon> eldest) {
+            return size() > MAX_SERVERS;
+        }
+    };
+
+    private static final AtomicInteger version = new AtomicInteger();
 
     private ServerIconCache() {
     }
 
-    public static void set(byte[] pngBytes) {
-        lastPngBytes = pngBytes;
+    public static void put(String serverKey, byte[] pngBytes) {
+        if (pngBytes == null || pngBytes.length == 0) return;
+        synchronized (ServerIconCache.class) {
+            BY_SERVER.put(serverKey, new Icon(pngBytes, sha1Hex(pngBytes)));
+        }
+        version.incrementAndGet();
     }
 
+    /**
+     * Icon of the server we're connected to, if it sent one.
+     */
     public static byte[] get() {
-        return lastPngBytes;
+        return get(currentServerKey());
+    }
+
+    /**
+     * Icon sent by the given server this session: the same address, otherwise the same host.
+     */
+    public static synchronized byte[] get(String serverKey) {
+        Icon icon = find(serverKey);
+        return icon != null ? icon.png : null;
+    }
+
+    /**
+     * SHA-1 of the icon we hold for the given server, or null.
+     */
+    public static synchronized String hash(String serverKey) {
+        Icon icon = find(serverKey);
+        return icon != null ? icon.hash : null;
+    }
+
+    /**
+     * Icon bytes with the given SHA-1 sent by any server this session, or null.
+     */
+    public static synchronized byte[] byHash(String hash) {
+        for (Icon icon : BY_SERVER.values()) {
+            if (icon.hash.equals(hash)) return icon.png;
+        }
+        return null;
+    }
+
+    /**
+     * Changes every time new icon bytes arrive, so consumers know to retry icons they couldn't resolve before.
+     */
+    public static int version() {
+        return version.get();
+    }
+
+    /**
+     * Cache key of the server we're connected to ("" in singleplayer or when unknown). Client thread.
+     */
+    public static String currentServerKey() {
+        ServerData current = Minecraft.getInstance().getCurrentServer();
+        return current != null ? ServerDirectory.normalize(current.ip) : "";
+    }
+
+    public static String sha1Hex(byte[] value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] bytes = digest.digest(value);
+            StringBuilder sb = new StringBuilder(bytes.length * 2);
+            for (byte b : bytes) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+                sb.append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (Exception e) {
+            return Integer.toHexString(java.util.Arrays.hashCode(value));
+        }
+    }
+
+    private static Icon find(String serverKey) {
+        if (serverKey == null) return null;
+        Icon icon = BY_SERVER.get(serverKey);
+        if (icon != null) return icon;
+
+        String host = ServerDirectory.hostPart(serverKey);
+        if (host.isEmpty()) return null;
+        for (Map.Entry<String, Icon> entry : BY_SERVER.entrySet()) {
+            if (host.equals(ServerDirectory.hostPart(entry.getKey()))) return entry.getValue();
+        }
+        return null;
+    }
+
+    private record Icon(byte[] png, String hash) {
     }
 }
@@ -0,0 +1,35 @@
+package com.example.waystoneinjector.client.serverside;
+
+import com.mojang.logging.LogUtils;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.network.NetworkEvent;
+import org.slf4j.Logger;
+
+import java.util.function.Supplier;
+
+/**
+ * Server -> Client: "your icon with this SHA-1 is still current", sent instead of {@link ServerIconS2CPacket}
+ * when the hash was listed in our {@link KnownIconsC2SPacket}.
+ */
+public record ServerIconRefS2CPacket(String hash) {
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private static final int HASH_LENGTH = 40;
+
+    public static void encode(ServerIconRefS2CPacket msg, FriendlyByteBuf buf) {
+        buf.writeUtf(msg.hash, HASH_LENGTH);
+    }
+
+    public static ServerIconRefS2CPacket decode(FriendlyByteBuf buf) {
+        return new ServerIconRefS2CPacket(buf.readUtf(HASH_LENGTH));
+    }
+
+    public static void handle(ServerIconRefS2CPacket msg, Supplier<NetworkEvent.Context> ctx) {
+        ctx.get().enqueueWork(() -> {
+            LOGGER.debug("Server icon unchanged ({})", msg.hash);
+            ServerSideNetwork.resolveIconRef(msg.hash);
+        });
+        ctx.get().setPacketHandled(true);
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.waystoneinjector.client.serverside;
 
+import com.example.waystoneinjector.client.BackgroundIo;
+import com.example.waystoneinjector.client.gui.widget.ServerIconDiskCache;
 import com.mojang.logging.LogUtils;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraftforge.network.NetworkEvent;
@@ -40,12 +42,23 @@ public record ServerIconS2CPacket(byte[] pngBytes) {
     }
 
     public static void handle(ServerIconS2CPacket msg, Supplier<NetworkEvent.Context> ctx) {
-        ctx.get().enqueueWork(() -> {
-            if (msg.pngBytes != null && msg.pngBytes.length > 0) {
-                ServerIconCache.set(msg.pngBytes);
-                LOGGER.debug("Received server icon bytes: {}", msg.pngBytes.length);
-            }
-        });
+        ctx.get().enqueueWork(() -> accept(msg.pngBytes));
         ctx.get().setPacketHandled(true);
     }
+
+    /**
+     * Icon bytes for the server we're connected to, sent on their own or inside a {@link BatchPacket} (client thread).
+     */
+    static void accept(byte[] pngBytes) {
+        if (pngBytes == null || pngBytes.length == 0) {
+            return;
+        }
+        String serverKey = ServerIconCache.currentServerKey();
+        ServerIconCache.put(serverKey, pngBytes);
+        if (!serverKey.isEmpty()) {
+            // Remembered across sessions so the next login can answer with just the hash
+            BackgroundIo.execute(() -> ServerIconDiskCache.store(serverKey, pngBytes));
+        }
+        LOGGER.debug("Received server icon bytes: {}", pngBytes.length);
+    }
 }
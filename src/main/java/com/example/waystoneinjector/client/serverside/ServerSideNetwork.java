@@ -1,14 +1,27 @@
 package com.example.waystoneinjector.client.serverside;
 
+import com.example.waystoneinjector.client.BackgroundIo;
+import com.example.waystoneinjector.client.gui.widget.ServerIconDiskCache;
 import com.mojang.logging.LogUtils;
 import net.minecraft.client.Minecraft;
 import net.minecraft.network.Connection;
+import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.network.NetworkRegistry;
 import net.minecraftforge.network.simple.SimpleChannel;
 import org.slf4j.Logger;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
 /**
  * Optional bridge to the server-side sister mod.
  *
@@ -19,6 +32,24 @@ import org.slf4j.Logger;
  * How it works:
  * - If the server has the channel present, we can send C2S requests (like open vault) and receive S2C data (like server icon).
  * - If absent, all calls no-op (optionally with a friendly chat message).
+ *
+ * Versioning:
+ * - The channel accepts any numeric protocol version (and a missing channel); what a server can actually do is
+ *   negotiated after login with {@link HelloPacket}: each side lists its capabilities and a feature is used only
+ *   when both list it. A server that never answers the hello gets the original one-message-per-request behavior.
+ * - With {@link #CAP_BATCH}, requests are queued as {@link BatchPacket} sub-messages and sent as one packet at the
+ *   end of the client tick; the server may batch its replies the same way. New features are new sub-message types.
+ * - Message ids are assigned in registration order and must match the server mod, so new messages are only ever appended.
+ *
+ * Server icon handshake (so the icon bytes only cross the wire when we don't have them yet):
+ * - Once the server answered the hello, we send {@link KnownIconsC2SPacket} with the hashes of the icons we hold for it.
+ * - The server answers {@link ServerIconRefS2CPacket} if its icon's hash is among them, otherwise {@link ServerIconS2CPacket}.
+ * - If a referenced icon turns out to be gone locally, we re-send an empty list to get the bytes.
+ *
+ * Waystone directory (so the waystone menu doesn't have to reflect over the Waystones screen):
+ * - A server listing {@link #CAP_WAYSTONE_SYNC} sends the player's directory ({@link WaystoneSyncS2CPacket}) in a
+ *   batch after the hello, then deltas as waystones change; {@link SyncedWaystones} keeps the client copy.
+ * - If a delta doesn't follow the revision we hold, we ask for the whole directory again.
  */
 @SuppressWarnings("null")
 public final class ServerSideNetwork {
@@ -29,15 +60,42 @@ public final class ServerSideNetwork {
     private static final ResourceLocation CHANNEL_ID = new ResourceLocation("waystoneinjector_server", "main");
     private static final String PROTOCOL = "1";
 
+    // Feature level announced in the hello (independent of the channel version above)
+    private static final int HELLO_PROTOCOL = 2;
+
+    public static final String CAP_BATCH = "batch";
+    public static final String CAP_ICON_REF = "icon_ref";
+    public static final String CAP_OPEN_VAULT = "open_vault";
+    public static final String CAP_WAYSTONE_SYNC = "waystone_sync";
+
+    // Batch sub-message types
+    public static final String MSG_OPEN_VAULT = "open_vault";
+    public static final String MSG_KNOWN_ICONS = "known_icons";
+    public static final String MSG_SERVER_ICON = "server_icon";
+    public static final String MSG_SERVER_ICON_REF = "server_icon_ref";
+    public static final String MSG_WAYSTONE_SYNC = "waystone_sync";
+    public static final String MSG_WAYSTONE_RESYNC = "waystone_resync";
+
+    private static final List<String> CLIENT_CAPABILITIES = List.of(CAP_BATCH, CAP_ICON_REF, CAP_OPEN_VAULT, CAP_WAYSTONE_SYNC);
+
     public static final SimpleChannel CHANNEL = NetworkRegistry.newSimpleChannel(
         CHANNEL_ID,
         () -> PROTOCOL,
-        PROTOCOL::equals,
-        PROTOCOL::equals
+        ServerSideNetwork::acceptsVersion,
+        ServerSideNetwork::acceptsVersion
     );
 
     private static int nextId = 0;
 
+    // What the connected server announced; empty until (unless) it answers the hello
+    private static volatile Set<String> serverCapabilities = Set.of();
+
+    // Handlers for sub-messages the server sends inside a batch
+    private static final Map<String, Consumer<FriendlyByteBuf>> HANDLERS = new ConcurrentHashMap<>();
+
+    // Client thread only
+    private static final List<BatchPacket.Entry> outgoing = new ArrayList<>();
+
     private ServerSideNetwork() {
     }
 
@@ -55,6 +113,39 @@ public final class ServerSideNetwork {
             .consumerMainThread(ServerIconS2CPacket::handle)
             .add();
 
+        CHANNEL.messageBuilder(KnownIconsC2SPacket.class, nextId++)
+            .encoder(KnownIconsC2SPacket::encode)
+            .decoder(KnownIconsC2SPacket::decode)
+            // Client should never receive this packet.
+            .consumerMainThread((msg, ctx) -> ctx.get().setPacketHandled(true))
+            .add();
+
+        CHANNEL.messageBuilder(ServerIconRefS2CPacket.class, nextId++)
+            .encoder(ServerIconRefS2CPacket::encode)
+            .decoder(ServerIconRefS2CPacket::decode)
+            .consumerMainThread(ServerIconRefS2CPacket::handle)
+            .add();
+
+        CHANNEL.messageBuilder(HelloPacket.class, nextId++)
+            .encoder(HelloPacket::encode)
+            .decoder(HelloPacket::decode)
+            .consumerMainThread(HelloPacket::handle)
+            .add();
+
+        CHANNEL.messageBuilder(BatchPacket.class, nextId++)
+            .encoder(BatchPacket::encode)
+            .decoder(BatchPacket::decode)
+            .consumerMainThread(BatchPacket::handle)
+            .add();
+
+        registerHandler(MSG_SERVER_ICON, buf -> ServerIconS2CPacket.accept(ServerIconS2CPacket.decode(buf).pngBytes()));
+        registerHandler(MSG_SERVER_ICON_REF, buf -> resolveIconRef(ServerIconRefS2CPacket.decode(buf).hash()));
+        registerHandler(MSG_WAYSTONE_SYNC, buf -> SyncedWaystones.apply(WaystoneSyncS2CPacket.decode(buf)));
+
+        MinecraftForge.EVENT_BUS.addListener(ServerSideNetwork::onLoggingIn);
+        MinecraftForge.EVENT_BUS.addListener(ServerSideNetwork::onLoggingOut);
+        MinecraftForge.EVENT_BUS.addListener(ServerSideNetwork::onClientTick);
+
         LOGGER.info("ServerSideNetwork initialized (channel={})", CHANNEL_ID);
     }
 
@@ -72,6 +163,28 @@ public final class ServerSideNetwork {
         return CHANNEL.isRemotePresent(connection);
     }
 
+    /**
+     * Whether the connected server announced {@code capability} in its hello.
+     */
+    public static boolean serverSupports(String capability) {
+        return serverCapabilities.contains(capability);
+    }
+
+    /**
+     * Handle sub-messages of {@code type} arriving in a {@link BatchPacket} (client thread).
+     */
+    public static void registerHandler(String type, Consumer<FriendlyByteBuf> handler) {
+        HANDLERS.put(type, handler);
+    }
+
+    /**
+     * Queue a sub-message for the batch sent at the end of this tick. Only for servers that support {@link #CAP_BATCH};
+     * client thread only.
+     */
+    public static void queue(String type, Consumer<FriendlyByteBuf> payload) {
+        outgoing.add(BatchPacket.Entry.of(type, payload));
+    }
+
     public static void requestOpenVault(boolean chatIfUnavailable) {
         Minecraft mc = Minecraft.getInstance();
         var player = mc.player;
@@ -87,6 +200,132 @@ public final class ServerSideNetwork {
             return;
         }
 
-        CHANNEL.sendToServer(new OpenVaultC2SPacket());
+        if (serverSupports(CAP_BATCH)) {
+            queue(MSG_OPEN_VAULT, buf -> OpenVaultC2SPacket.encode(new OpenVaultC2SPacket(), buf));
+        } else {
+            CHANNEL.sendToServer(new OpenVaultC2SPacket());
+        }
+    }
+
+    /**
+     * Ask for the full waystone directory, e.g. after missing a delta. Client thread only.
+     */
+    static void requestWaystoneResync() {
+        if (serverSupports(CAP_WAYSTONE_SYNC) && serverSupports(CAP_BATCH)) {
+            queue(MSG_WAYSTONE_RESYNC, buf -> {});
+        }
+    }
+
+    static void dispatch(BatchPacket.Entry entry) {
+        Consumer<FriendlyByteBuf> handler = HANDLERS.get(entry.type());
+        if (handler == null) {
+            LOGGER.debug("Ignoring unknown server message type {}", entry.type());
+            return;
+        }
+        FriendlyByteBuf buf = entry.reader();
+        try {
+            handler.accept(buf);
+        } catch (Exception e) {
+            LOGGER.warn("Failed to handle server message {}: {}", entry.type(), e.getMessage());
+        } finally {
+            buf.release();
+        }
+    }
+
+    static void onServerHello(HelloPacket hello) {
+        serverCapabilities = Set.copyOf(hello.capabilities());
+        LOGGER.debug("Server side mod protocol {} with capabilities {}", hello.protocol(), serverCapabilities);
+        if (serverSupports(CAP_ICON_REF)) {
+            sendKnownIcons();
+        }
+    }
+
+    private static boolean acceptsVersion(String version) {
+        if (NetworkRegistry.ABSENT.equals(version) || NetworkRegistry.ACCEPTVANILLA.equals(version)) {
+            return true;
+        }
+        try {
+            return Integer.parseInt(version) >= 1;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static void onLoggingIn(ClientPlayerNetworkEvent.LoggingIn event) {
+        serverCapabilities = Set.of();
+        outgoing.clear();
+        SyncedWaystones.clear();
+
+        Connection connection = event.getConnection();
+        if (connection == null || !CHANNEL.isRemotePresent(connection)) {
+            return;
+        }
+        CHANNEL.sendToServer(new HelloPacket(HELLO_PROTOCOL, CLIENT_CAPABILITIES));
+    }
+
+    private static void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+        serverCapabilities = Set.of();
+        outgoing.clear();
+        SyncedWaystones.clear();
+    }
+
+    private static void onClientTick(TickEvent.ClientTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || outgoing.isEmpty()) {
+            return;
+        }
+        if (isServerSideModPresent()) {
+            CHANNEL.sendToServer(new BatchPacket(List.copyOf(outgoing)));
+        }
+        outgoing.clear();
+    }
+
+    /**
+     * Tell the server which icons we already have, so it only sends the bytes for a new one.
+     */
+    private static void sendKnownIcons() {
+        String serverKey = ServerIconCache.currentServerKey();
+        List<String> hashes = new ArrayList<>(2);
+        String inMemory = ServerIconCache.hash(serverKey);
+        if (inMemory != null) {
+            hashes.add(inMemory);
+        }
+        String onDisk = ServerIconDiskCache.iconHash(serverKey);
+        if (onDisk != null && !onDisk.equals(inMemory)) {
+            hashes.add(onDisk);
+        }
+        sendKnownIcons(hashes);
+    }
+
+    private static void sendKnownIcons(List<String> hashes) {
+        KnownIconsC2SPacket packet = new KnownIconsC2SPacket(hashes);
+        if (serverSupports(CAP_BATCH)) {
+            queue(MSG_KNOWN_ICONS, buf -> KnownIconsC2SPacket.encode(packet, buf));
+        } else {
+            CHANNEL.sendToServer(packet);
+        }
+    }
+
+    /**
+     * The server says our icon with this hash is current: use it as this server's icon (client thread).
+     */
+    static void resolveIconRef(String hash) {
+        String serverKey = ServerIconCache.currentServerKey();
+        byte[] inMemory = ServerIconCache.byHash(hash);
+        if (inMemory != null) {
+            ServerIconCache.put(serverKey, inMemory);
+            return;
+        }
+
+        BackgroundIo.execute(() -> {
+            byte[] stored = ServerIconDiskCache.readIcon(hash);
+            Minecraft.getInstance().execute(() -> {
+                if (stored != null) {
+                    ServerIconCache.put(serverKey, stored);
+                } else if (isServerSideModPresent()) {
+                    // Evicted or deleted since we advertised it; ask for the bytes
+                    sendKnownIcons(List.of());
+                }
+            });
+        });
     }
 }
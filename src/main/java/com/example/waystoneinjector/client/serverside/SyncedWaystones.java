@@ -0,0 +1,131 @@
+package com.example.waystoneinjector.client.serverside;
+
+import com.example.waystoneinjector.client.DebugLog;
+import com.example.waystoneinjector.client.WaystoneTypeRegistry;
+import com.example.waystoneinjector.client.gui.WaystoneData;
+import com.mojang.logging.LogUtils;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.Level;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Client copy of the waystone directory the server mod pushes with {@link WaystoneSyncS2CPacket}, so the
+ * waystone menu can be filled without reflecting over the Waystones screen.
+ *
+ * Entries keep the server's order. The {@link WaystoneData} list handed to screens is rebuilt only after a change
+ * and shared until the next one. Everything here runs on the client thread; the copy is dropped on logout.
+ *
+ * A missed delta drops the copy (screens go back to extracting from the Waystones screen) and asks for the full
+ * directory. Resync isn't a negotiated capability, so the reply may never come: the request is repeated on a
+ * later delta once {@link #RESYNC_TIMEOUT_MS} has passed, and given up after {@link #MAX_RESYNC_ATTEMPTS}.
+ */
+public final class SyncedWaystones {
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private static final long RESYNC_TIMEOUT_MS = 10_000L;
+    private static final int MAX_RESYNC_ATTEMPTS = 3;
+
+    private static final Map<UUID, WaystoneSyncS2CPacket.Entry> ENTRIES = new LinkedHashMap<>();
+    private static final Map<ResourceLocation, ResourceKey<Level>> DIMENSIONS = new HashMap<>();
+
+    private static boolean received;
+    private static int resyncAttempts;
+    private static long resyncRequestedAt;
+    private static int revision;
+    private static List<WaystoneData> snapshot;
+
+    private SyncedWaystones() {
+    }
+
+    /**
+     * The synced directory, or null if the server hasn't sent one (no server mod, or an older one).
+     */
+    public static List<WaystoneData> snapshot() {
+        if (!received) {
+            return null;
+        }
+        if (snapshot == null) {
+            List<WaystoneData> built = new ArrayList<>(ENTRIES.size());
+            for (WaystoneSyncS2CPacket.Entry entry : ENTRIES.values()) {
+                built.add(new WaystoneData(entry.id(), entry.name(), entry.x(), entry.y(), entry.z(),
+                    dimension(entry.dimension()), entry.global(), null));
+            }
+            snapshot = List.copyOf(built);
+        }
+        return snapshot;
+    }
+
+    static void apply(WaystoneSyncS2CPacket msg) {
+        if (!msg.full() && (!received || msg.revision() != revision + 1)) {
+            // Missed a delta (or got one before the full directory); stop serving the stale copy and start over
+            if (received) {
+                LOGGER.debug("Waystone delta {} doesn't follow {}, dropping the synced directory", msg.revision(), revision);
+                received = false;
+                snapshot = null;
+                ENTRIES.clear();
+            }
+            requestResync();
+            return;
+        }
+
+        if (msg.full()) {
+            ENTRIES.clear();
+            resyncAttempts = 0;
+        }
+        for (UUID id : msg.removed()) {
+            ENTRIES.remove(id);
+        }
+        for (WaystoneSyncS2CPacket.Entry entry : msg.upserts()) {
+            ENTRIES.put(entry.id(), entry);
+            if (!entry.type().isEmpty()) {
+                WaystoneTypeRegistry.registerWaystone(entry.name(), entry.type());
+            }
+        }
+
+        received = true;
+        revision = msg.revision();
+        snapshot = null;
+        DebugLog.log("Waystone directory at revision {}: {} waystones", revision, ENTRIES.size());
+    }
+
+    private static void requestResync() {
+        long now = System.currentTimeMillis();
+        if (resyncAttempts > 0 && now - resyncRequestedAt < RESYNC_TIMEOUT_MS) {
+            return; // Still waiting for the reply
+        }
+        if (resyncAttempts >= MAX_RESYNC_ATTEMPTS) {
+            return; // Gave up; the menu keeps extracting from the Waystones screen
+        }
+        resyncAttempts++;
+        resyncRequestedAt = now;
+        if (resyncAttempts == MAX_RESYNC_ATTEMPTS) {
+            LOGGER.debug("Last request for the full waystone directory; ignoring deltas if it doesn't come");
+        } else {
+            LOGGER.debug("Requesting the full waystone directory (attempt {})", resyncAttempts);
+        }
+        ServerSideNetwork.requestWaystoneResync();
+    }
+
+    static void clear() {
+        ENTRIES.clear();
+        received = false;
+        resyncAttempts = 0;
+        resyncRequestedAt = 0;
+        revision = 0;
+        snapshot = null;
+    }
+
+    private static ResourceKey<Level> dimension(ResourceLocation location) {
+        return DIMENSIONS.computeIfAbsent(location, l -> ResourceKey.create(Registries.DIMENSION, l));
+    }
+}
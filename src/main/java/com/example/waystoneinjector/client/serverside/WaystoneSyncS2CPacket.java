@@ -0,0 +1,144 @@
+package com.example.waystoneinjector.client.serverside;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Server -> Client: the player's waystone directory, as a {@link ServerSideNetwork#MSG_WAYSTONE_SYNC} batch
+ * sub-message (servers announcing {@link ServerSideNetwork#CAP_WAYSTONE_SYNC}).
+ *
+ * The full directory is sent once after the hello; afterwards only deltas (added/changed entries and removed ids).
+ * Every message carries the server's revision; a delta that doesn't follow the revision we hold is dropped and
+ * we ask for the full directory again ({@link ServerSideNetwork#MSG_WAYSTONE_RESYNC}).
+ *
+ * Layout: flags byte, varint revision, dimension table, type table, upserts, removals. Dimensions and types are
+ * written once per message and referenced by varint index; coordinates are zigzag varints, so typical positions
+ * take two or three bytes each.
+ */
+public record WaystoneSyncS2CPacket(boolean full, int revision, List<Entry> upserts, List<UUID> removed) {
+
+    private static final int FLAG_FULL = 1;
+    private static final int ENTRY_GLOBAL = 1;
+
+    private static final int MAX_ENTRIES = 4096;
+    private static final int MAX_TABLE = 256;
+    private static final int MAX_NAME_LENGTH = 256;
+    private static final int MAX_ID_LENGTH = 256;
+
+    /**
+     * One waystone. {@code type} is the Waystones block type (e.g. "mossy"), empty when the server doesn't know it.
+     */
+    public record Entry(UUID id, String name, int x, int y, int z, ResourceLocation dimension, String type, boolean global) {
+    }
+
+    public static void encode(WaystoneSyncS2CPacket msg, FriendlyByteBuf buf) {
+        int count = Math.min(msg.upserts.size(), MAX_ENTRIES);
+        List<Entry> upserts = msg.upserts.subList(0, count);
+
+        Map<ResourceLocation, Integer> dimensions = new HashMap<>();
+        Map<String, Integer> types = new HashMap<>();
+        List<ResourceLocation> dimensionTable = new ArrayList<>();
+        List<String> typeTable = new ArrayList<>();
+        for (Entry entry : upserts) {
+            if (dimensions.putIfAbsent(entry.dimension, dimensionTable.size()) == null) {
+                dimensionTable.add(entry.dimension);
+            }
+            if (types.putIfAbsent(entry.type, typeTable.size()) == null) {
+                typeTable.add(entry.type);
+            }
+        }
+
+        buf.writeByte(msg.full ? FLAG_FULL : 0);
+        buf.writeVarInt(msg.revision);
+
+        buf.writeVarInt(dimensionTable.size());
+        for (ResourceLocation dimension : dimensionTable) {
+            buf.writeUtf(dimension.toString(), MAX_ID_LENGTH);
+        }
+        buf.writeVarInt(typeTable.size());
+        for (String type : typeTable) {
+            buf.writeUtf(type, MAX_ID_LENGTH);
+        }
+
+        buf.writeVarInt(count);
+        for (Entry entry : upserts) {
+            buf.writeUUID(entry.id);
+            buf.writeUtf(entry.name, MAX_NAME_LENGTH);
+            buf.writeVarInt(zigzag(entry.x));
+            buf.writeVarInt(zigzag(entry.y));
+            buf.writeVarInt(zigzag(entry.z));
+            buf.writeVarInt(dimensions.get(entry.dimension));
+            buf.writeVarInt(types.get(entry.type));
+            buf.writeByte(entry.global ? ENTRY_GLOBAL : 0);
+        }
+
+        int removedCount = Math.min(msg.removed.size(), MAX_ENTRIES);
+        buf.writeVarInt(removedCount);
+        for (int i = 0; i < removedCount; i++) {
+            buf.writeUUID(msg.removed.get(i));
+        }
+    }
+
+    public static WaystoneSyncS2CPacket decode(FriendlyByteBuf buf) {
+        boolean full = (buf.readByte() & FLAG_FULL) != 0;
+        int revision = buf.readVarInt();
+
+        ResourceLocation[] dimensions = new ResourceLocation[checkedCount(buf.readVarInt(), MAX_TABLE)];
+        for (int i = 0; i < dimensions.length; i++) {
+            dimensions[i] = new ResourceLocation(buf.readUtf(MAX_ID_LENGTH));
+        }
+        String[] types = new String[checkedCount(buf.readVarInt(), MAX_TABLE)];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = buf.readUtf(MAX_ID_LENGTH);
+        }
+
+        int count = checkedCount(buf.readVarInt(), MAX_ENTRIES);
+        List<Entry> upserts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            UUID id = buf.readUUID();
+            String name = buf.readUtf(MAX_NAME_LENGTH);
+            int x = unzigzag(buf.readVarInt());
+            int y = unzigzag(buf.readVarInt());
+            int z = unzigzag(buf.readVarInt());
+            ResourceLocation dimension = dimensions[checkedIndex(buf.readVarInt(), dimensions.length)];
+            String type = types[checkedIndex(buf.readVarInt(), types.length)];
+            boolean global = (buf.readByte() & ENTRY_GLOBAL) != 0;
+            upserts.add(new Entry(id, name, x, y, z, dimension, type, global));
+        }
+
+        int removedCount = checkedCount(buf.readVarInt(), MAX_ENTRIES);
+        List<UUID> removed = new ArrayList<>(removedCount);
+        for (int i = 0; i < removedCount; i++) {
+            removed.add(buf.readUUID());
+        }
+        return new WaystoneSyncS2CPacket(full, revision, upserts, removed);
+    }
+
+    private static int checkedCount(int count, int max) {
+        if (count < 0 || count > max) {
+            throw new IllegalArgumentException("Waystone sync count out of range: " + count);
+        }
+        return count;
+    }
+
+    private static int checkedIndex(int index, int length) {
+        if (index < 0 || index >= length) {
+            throw new IllegalArgumentException("Waystone sync table index out of range: " + index);
+        }
+        return index;
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
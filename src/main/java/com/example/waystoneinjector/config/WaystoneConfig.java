@@ -102,6 +102,12 @@ public class WaystoneConfig {
     // Nether portal texture override (client-side resource pack selection)
     public static final ForgeConfigSpec.EnumValue<NetherPortalVariant> NETHER_PORTAL_VARIANT;
 
+    // Rendering
+    public static final ForgeConfigSpec.BooleanValue STREAM_PORTAL_FRAMES;
+
+    // Diagnostics
+    public static final ForgeConfigSpec.BooleanValue DEBUG_VERBOSE_LOGGING;
+
     static {
         ForgeConfigSpec.Builder builder = new ForgeConfigSpec.Builder();
 
@@ -409,6 +415,23 @@ public class WaystoneConfig {
                 .defineInRange("deathCount", 1, 1, 10);
         builder.pop();
 
+        // Rendering
+        builder.push("rendering");
+        STREAM_PORTAL_FRAMES = builder
+                .comment("Upload only the current frame of the animated portal backgrounds into one reusable 256x256 texture",
+                        "instead of keeping every 256x4096 portal sheet on the GPU (about 4 MB of VRAM each)",
+                        "Saves VRAM on low-end GPUs at the cost of a small upload every animation frame")
+                .define("streamPortalFrames", false);
+        builder.pop();
+
+        // Diagnostics
+        builder.push("debug");
+        DEBUG_VERBOSE_LOGGING = builder
+                .comment("Log detailed diagnostics (waystone detection, extraction, rendering) to latest.log",
+                        "Leave this off for normal play; per-frame messages are rate limited even when on")
+                .define("verboseLogging", false);
+        builder.pop();
+
         SPEC = builder.build();
     }
     
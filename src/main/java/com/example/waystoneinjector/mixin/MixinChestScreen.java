@@ -1,5 +1,7 @@
 package com.example.waystoneinjector.mixin;
 
+import com.example.waystoneinjector.client.gui.PortalSheets;
+import com.example.waystoneinjector.client.gui.TextureResolver;
 import com.mojang.blaze3d.systems.RenderSystem;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
@@ -27,36 +29,6 @@ public abstract class MixinChestScreen {
     private static final int ZE_VOIDROBE_TEX_W = 352;
     private static final int ZE_VOIDROBE_TEX_H = 442;
 
-    // Animated portal background (same sprite sheet used behind Waystone menus)
-    private static final @Nonnull ResourceLocation PORTAL_ANIMATION = new ResourceLocation(
-        "waystoneinjector", "textures/gui/portal_animation.png"
-    );
-
-    // Mystical portal overlay textures (26 frames)
-    private static final ResourceLocation[] MYSTICAL_PORTALS = new ResourceLocation[26];
-    static {
-        for (int i = 1; i <= 26; i++) {
-            MYSTICAL_PORTALS[i - 1] = new ResourceLocation("waystoneinjector", "textures/gui/mystical/mystic_" + i + ".png");
-        }
-    }
-
-    private static final int PORTAL_FRAME_W = 256;
-    private static final int PORTAL_FRAME_H = 256;
-    private static final int PORTAL_SHEET_W = 256;
-    private static final int PORTAL_SHEET_H = 4096;
-    private static final int PORTAL_FRAMES = PORTAL_SHEET_H / PORTAL_FRAME_H;
-    private static final long PORTAL_FRAME_TIME_MS = 100L;
-
-    private static void blitAnimatedPortalSheet(GuiGraphics graphics, @Nonnull ResourceLocation texture, int x, int y) {
-        int frame = (int) ((System.currentTimeMillis() / PORTAL_FRAME_TIME_MS) % PORTAL_FRAMES);
-        int v = frame * PORTAL_FRAME_H;
-        graphics.blit(texture, x, y,
-            PORTAL_FRAME_W, PORTAL_FRAME_H,
-            0.0F, (float) v,
-            PORTAL_FRAME_W, PORTAL_FRAME_H,
-            PORTAL_SHEET_W, PORTAL_SHEET_H);
-    }
-
     @Inject(
         method = {
             // Dev (named) environment
@@ -95,12 +67,9 @@ public abstract class MixinChestScreen {
         RenderSystem.enableBlend();
         RenderSystem.defaultBlendFunc();
 
-        blitAnimatedPortalSheet(guiGraphics, PORTAL_ANIMATION, portalX, portalY);
-        int randomFrame = (int) ((System.currentTimeMillis() / 100L) % 26);
-        ResourceLocation mystical = MYSTICAL_PORTALS[randomFrame];
-        if (mystical != null) {
-            guiGraphics.blit(mystical, portalX, portalY, 0, 0, 256, 256, 256, 256);
-        }
+        // Same animated portal sheet and mystical frames used behind Waystone menus
+        PortalSheets.blitPortal(guiGraphics, TextureResolver.PORTAL_ANIMATION, portalX, portalY);
+        PortalSheets.blitMystical(guiGraphics, portalX, portalY);
 
         // ChestScreen uses the standard 6-row chest layout (176x222) for our storage.
         int imageW = 176;
@@ -1,11 +1,14 @@
 package com.example.waystoneinjector.mixin;
 
+import com.example.waystoneinjector.client.DebugLog;
 import net.minecraftforge.network.NetworkHooks;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Mixin to disable the "Incompatible FML Modded Server" error
  * Allows connecting to servers even when mods don't match
@@ -14,10 +17,13 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 @Mixin(value = NetworkHooks.class, remap = false)
 public class MixinClientPacketListener {
     
+    // isVanillaConnection is queried constantly while connected, so only log it occasionally
+    private static final DebugLog.RateLimited BYPASS_LOG = DebugLog.rateLimited(30, TimeUnit.SECONDS);
+    
     @Inject(method = "isVanillaConnection", at = @At("HEAD"), cancellable = true, remap = false)
     private static void forceVanillaConnection(CallbackInfoReturnable<Boolean> cir) {
         // Always return true to bypass mod compatibility checks
-        System.out.println("[WaystoneInjector] Forcing vanilla connection - bypassing mod compatibility check");
+        BYPASS_LOG.log("Forcing vanilla connection - bypassing mod compatibility check");
         cir.setReturnValue(true);
     }
 }